@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Measures minimizing the solutions of the corpus puzzles, which start with every cell filled, in random orders.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinimizerBenchmark {
+    private final Minimizer minimizer = new Minimizer();
+    private final int[] cells = new int[SIZE * SIZE];
+    private int[][] grids;
+    private int next = 0;
+    private long seed = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        final var puzzles = PuzzleCorpus.load();
+        grids = new int[puzzles.length][SIZE * SIZE];
+        for (int i = 0; i < puzzles.length; i++) {
+            engine.reset(puzzles[i]);
+            engine.solve();
+            engine.copyCells(grids[i]);
+        }
+    }
+
+    @Benchmark
+    public int minimize() {
+        System.arraycopy(grids[next], 0, cells, 0, cells.length);
+        next = (next + 1) % grids.length;
+        return minimizer.minimize(cells, ++seed);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the time of single solves of the test corpus, so that JMH reports the percentiles of the tail.
+ * <p>
+ * Run with {@code ./gradlew jmh}. Every invocation solves the next puzzle of the corpus, and every pass over the
+ * corpus uses the next seed. The corpus holds puzzles known to be pathological for backtracking, among them one
+ * built against row-major searches, which the row-major order of the animated solver takes about 69 million nodes to
+ * solve. In {@code mrv} order the slowest puzzle of the corpus takes about 130 thousand nodes. Breaking ties at
+ * random ({@code random}) brings the slowest of 330 solves down to about 65 thousand nodes. The tails of these
+ * puzzles under random orders are light, so starting over ({@code luby}, {@code geometric}) throws away more work
+ * than it saves: the 99th percentile was about 90 thousand nodes with the geometric schedule and 180 thousand with
+ * Luby's.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestartBenchmark {
+    @Param({"mrv", "random", "luby", "geometric"})
+    public String strategy;
+
+    private final SolverEngine engine = new SolverEngine();
+    private RestartingSolver restartingSolver = null;
+    private int[][] puzzles;
+    private int next = 0;
+    private long seed = 1;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        puzzles = PuzzleCorpus.load();
+    }
+
+    @Benchmark
+    public SolveStatus solve() {
+        final var puzzle = puzzles[next];
+        next = (next + 1) % puzzles.length;
+        if (next == 0) {
+            seed++;
+        }
+
+        switch (strategy) {
+            case "mrv":
+                engine.reset(puzzle);
+                return engine.solve();
+            case "random":
+                engine.setSeed(seed);
+                engine.reset(puzzle);
+                return engine.solve();
+            default:
+                if (restartingSolver == null || restartingSolver.getSeed() != seed) {
+                    final var schedule = "luby".equals(strategy) ? RestartSchedule.LUBY : RestartSchedule.GEOMETRIC;
+                    restartingSolver = new RestartingSolver(ConstraintModel.CLASSIC, schedule,
+                        RestartingSolver.DEFAULT_FIRST_LIMIT, seed);
+                }
+                return restartingSolver.solve(puzzle);
+        }
+    }
+}
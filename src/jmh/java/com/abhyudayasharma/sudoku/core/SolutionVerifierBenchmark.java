@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Compares verifying the solutions of the corpus puzzles with {@link SolutionVerifier} against
+ * {@link SudokuBoard#isValid()}, which also needs a separate check of the givens.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolutionVerifierBenchmark {
+    private static final int CELLS = SIZE * SIZE;
+
+    private final SolutionVerifier verifier = new SolutionVerifier();
+    private byte[] puzzles;
+    private byte[] answers;
+    private SudokuBoard[] boards;
+    private int count;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final var corpus = PuzzleCorpus.load();
+        final var engine = new SolverEngine();
+        final var solution = new int[CELLS];
+        count = corpus.length;
+        puzzles = new byte[count * CELLS];
+        answers = new byte[count * CELLS];
+        boards = new SudokuBoard[count];
+        for (int board = 0; board < count; board++) {
+            engine.reset(corpus[board]);
+            engine.solve();
+            engine.copyCells(solution);
+            boards[board] = SudokuBoard.of(solution);
+            for (int i = 0; i < CELLS; i++) {
+                puzzles[board * CELLS + i] = (byte) corpus[board][i];
+                answers[board * CELLS + i] = (byte) solution[i];
+            }
+        }
+    }
+
+    @Benchmark
+    public SolutionVerifier.Status verifier() {
+        next = (next + 1) % count;
+        return verifier.verify(puzzles, answers, next);
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        next = (next + 1) % count;
+        final var board = boards[next];
+        for (int i = 0; i < CELLS; i++) {
+            final var given = puzzles[next * CELLS + i];
+            if (given != 0 && board.get(i / SIZE, i % SIZE).orElse(0) != given) {
+                return false;
+            }
+        }
+        return board.isValid();
+    }
+}
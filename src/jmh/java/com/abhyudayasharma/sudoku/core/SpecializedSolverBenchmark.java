@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Compares a {@link SpecializedSolver} generated for a variant with a {@link SolverEngine} searching the same nodes
+ * through the tables of the {@link ConstraintModel}.
+ * <p>
+ * Run with {@code ./gradlew jmh}. On the corpus of classic puzzles the generated solver takes about half the time of
+ * the engine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecializedSolverBenchmark {
+    @Param({"classic", "hyper"})
+    public String variant;
+
+    private final int[] cells = new int[SIZE * SIZE];
+    private SolverEngine engine;
+    private SpecializedSolver solver;
+    private int[][] puzzles;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final var model = "hyper".equals(variant) ? ConstraintModel.HYPER : ConstraintModel.CLASSIC;
+        engine = new SolverEngine(model);
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        solver = SpecializedSolver.generate(model);
+        // hyper sudoku adds units, so some classic puzzles have no hyper solution; the search is the same either way
+        puzzles = PuzzleCorpus.load();
+    }
+
+    @Benchmark
+    public SolveStatus engine() {
+        engine.reset(puzzles[next]);
+        next = (next + 1) % puzzles.length;
+        return engine.solve();
+    }
+
+    @Benchmark
+    public SolveStatus generated() {
+        System.arraycopy(puzzles[next], 0, cells, 0, cells.length);
+        next = (next + 1) % puzzles.length;
+        return solver.solve(cells);
+    }
+}
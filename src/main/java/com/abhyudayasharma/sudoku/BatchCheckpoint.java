@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku;
+
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * The progress of a batch run of the {@link HeadlessSolver}, from which a killed run can be resumed.
+ * <p>
+ * Inputs are solved one after another, so the completed work is every input before {@link BatchCheckpoint#inputIndex}
+ * and the first {@link BatchCheckpoint#inputLine} lines of that input. Everything written to the output up to
+ * {@link BatchCheckpoint#outputOffset} belongs to that work; anything after it is discarded on resume.
+ * <p>
+ * A checkpoint is written to a temporary file, forced to the disk and renamed over the previous one, so a crash
+ * leaves either the old or the new checkpoint but never a partial one.
+ *
+ * @author Abhyudaya Sharma
+ */
+@Value
+class BatchCheckpoint {
+    /**
+     * Identifies the inputs of the run, so that a checkpoint is not applied to different inputs.
+     */
+    String inputs;
+    int inputIndex;
+    long inputLine;
+    long outputOffset;
+    int puzzleCount;
+    int failureCount;
+
+    /**
+     * Reads a checkpoint.
+     *
+     * @param file the checkpoint file
+     * @return the checkpoint, or {@link Optional#empty()} if the file does not exist
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid checkpoint
+     */
+    static Optional<BatchCheckpoint> read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+
+        final var properties = new Properties();
+        properties.load(new StringReader(Files.readString(file, StandardCharsets.UTF_8)));
+        try {
+            return Optional.of(new BatchCheckpoint(properties.getProperty("inputs", ""),
+                Integer.parseInt(properties.getProperty("inputIndex")),
+                Long.parseLong(properties.getProperty("inputLine")),
+                Long.parseLong(properties.getProperty("outputOffset")),
+                Integer.parseInt(properties.getProperty("puzzleCount")),
+                Integer.parseInt(properties.getProperty("failureCount"))));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("\"%s\" is not a valid checkpoint", file), e);
+        }
+    }
+
+    /**
+     * Atomically replaces the checkpoint file with this checkpoint.
+     *
+     * @param file the checkpoint file
+     * @throws IOException if the checkpoint cannot be written
+     */
+    void write(Path file) throws IOException {
+        final var properties = new Properties();
+        properties.setProperty("inputs", inputs);
+        properties.setProperty("inputIndex", String.valueOf(inputIndex));
+        properties.setProperty("inputLine", String.valueOf(inputLine));
+        properties.setProperty("outputOffset", String.valueOf(outputOffset));
+        properties.setProperty("puzzleCount", String.valueOf(puzzleCount));
+        properties.setProperty("failureCount", String.valueOf(failureCount));
+        final var text = new StringWriter();
+        properties.store(text, "sudoku batch checkpoint");
+
+        final var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            final var buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        // make the rename itself durable; directories cannot be opened on every platform
+        final var directory = file.toAbsolutePath().getParent();
+        try (var channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // the rename is still atomic, only its durability depends on the file system
+        }
+    }
+}
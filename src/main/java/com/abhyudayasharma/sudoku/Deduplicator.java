@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku;
+
+import com.abhyudayasharma.sudoku.core.BoardLines;
+import com.abhyudayasharma.sudoku.core.Canonicalizer;
+import com.abhyudayasharma.sudoku.core.PuzzleIndex;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Removes duplicate puzzles from corpora in a single pass.
+ * <p>
+ * Puzzles are read one per line like in the {@link HeadlessSolver} and every puzzle that has not been seen before is
+ * printed unchanged. With {@code --canonical}, puzzles which only differ by a rotation, a reflection or a relabelling
+ * of the digits are duplicates of each other, as decided by the {@link Canonicalizer}. The puzzles seen so far are
+ * kept in a {@link PuzzleIndex} outside of the heap.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class Deduplicator {
+    static final String OPTION = "--dedup";
+    private static final String USAGE = "Usage: sudoku " + OPTION
+        + " [--canonical] [--approximate] [--expected <count>] [--spill <directory>] [file...]\n"
+        + "Prints every puzzle that has not been seen before. Reads puzzles from the standard input when no files are\n"
+        + "given. An approximate index uses less memory but needs the expected number of unique puzzles.";
+    private static final long DEFAULT_EXPECTED = 1 << 20;
+
+    private final PuzzleIndex index;
+    private final Canonicalizer canonicalizer;
+    private final int[] cells = new int[SIZE * SIZE];
+    private final int[] canonical = new int[SIZE * SIZE];
+    private final PrintStream out;
+    private final PrintStream err;
+    private long puzzleCount = 0;
+    private long invalidCount = 0;
+
+    private Deduplicator(PuzzleIndex index, boolean canonicalize, PrintStream out, PrintStream err) {
+        this.index = index;
+        this.canonicalizer = canonicalize ? new Canonicalizer() : null;
+        this.out = out;
+        this.err = err;
+    }
+
+    /**
+     * Removes the duplicates from the puzzles given by the command line arguments.
+     *
+     * @param args  the arguments following {@code --dedup}
+     * @param stdin read when no input files are given
+     * @param out   receives the unique puzzles
+     * @param err   receives errors and the counts
+     * @return the exit code of the process: {@code 0} on success, {@code 1} if an approximate index became full and
+     * {@code 2} if the arguments were invalid
+     * @throws IOException if an input cannot be read
+     */
+    public static int run(String[] args, InputStream stdin, PrintStream out, PrintStream err) throws IOException {
+        final var files = new ArrayList<Path>();
+        var canonicalize = false;
+        var approximate = false;
+        var expected = DEFAULT_EXPECTED;
+        Path spillDirectory = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--canonical":
+                    canonicalize = true;
+                    break;
+                case "--approximate":
+                    approximate = true;
+                    break;
+                case "--expected":
+                    try {
+                        expected = Long.parseLong(args[++i]);
+                    } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                        err.println(USAGE);
+                        return 2;
+                    }
+                    break;
+                case "--spill":
+                    if (++i == args.length) {
+                        err.println(USAGE);
+                        return 2;
+                    }
+                    spillDirectory = Path.of(args[i]);
+                    break;
+                case "--help":
+                    out.println(USAGE);
+                    return 0;
+                default:
+                    if (args[i].startsWith("--")) {
+                        err.println(USAGE);
+                        return 2;
+                    }
+                    files.add(Path.of(args[i]));
+            }
+        }
+
+        try (var index = spillDirectory == null
+            ? (approximate ? PuzzleIndex.approximate(expected) : PuzzleIndex.create(expected))
+            : PuzzleIndex.mapped(expected, approximate, spillDirectory)) {
+            final var deduplicator = new Deduplicator(index, canonicalize, out, err);
+            if (files.isEmpty()) {
+                deduplicator.filter(new BufferedReader(new InputStreamReader(stdin, StandardCharsets.UTF_8)));
+            }
+
+            for (var file : files) {
+                try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    deduplicator.filter(reader);
+                }
+            }
+            out.flush();
+
+            final var valid = deduplicator.puzzleCount - deduplicator.invalidCount;
+            err.printf("Read %d puzzles: %d unique, %d duplicates, %d invalid (%d MiB index)%n",
+                deduplicator.puzzleCount, index.getSize(), valid - index.getSize(), deduplicator.invalidCount,
+                index.getTableBytes() >> 20);
+        } catch (IllegalStateException e) {
+            out.flush();
+            err.println(e.getMessage() + ", use a larger --expected count.");
+            return 1;
+        }
+        return 0;
+    }
+
+    private void filter(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            puzzleCount++;
+            try {
+                BoardLines.parse(line, cells);
+            } catch (IllegalArgumentException e) {
+                invalidCount++;
+                err.println("Puzzle " + puzzleCount + ": " + e.getMessage());
+                continue;
+            }
+
+            if (canonicalizer != null) {
+                canonicalizer.canonicalize(cells, canonical);
+            }
+            if (index.add(canonicalizer == null ? cells : canonical)) {
+                out.println(line);
+            }
+        }
+    }
+}
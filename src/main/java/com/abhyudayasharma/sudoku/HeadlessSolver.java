@@ -0,0 +1,646 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku;
+
+import com.abhyudayasharma.sudoku.core.BoardLines;
+import com.abhyudayasharma.sudoku.core.CellOrder;
+import com.abhyudayasharma.sudoku.core.ConstraintModel;
+import com.abhyudayasharma.sudoku.core.HardnessEstimator;
+import com.abhyudayasharma.sudoku.core.MoveListener;
+import com.abhyudayasharma.sudoku.core.PortfolioSolver;
+import com.abhyudayasharma.sudoku.core.SolutionCache;
+import com.abhyudayasharma.sudoku.core.SolveStatus;
+import com.abhyudayasharma.sudoku.core.SolverEngine;
+import com.abhyudayasharma.sudoku.core.TraceRecorder;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Solves puzzles from the command line.
+ * <p>
+ * Every input line is one puzzle in the format described by {@link BoardLines}; blank lines and lines starting with
+ * {@code #} are skipped. Files ending in {@code .csv} are read as a single board like the ones saved by the user
+ * interface. For every puzzle one line is printed: the solution, {@code unsolvable} or {@code invalid}.
+ * <p>
+ * Long batch runs can write their solutions to a file and record their progress in a {@link BatchCheckpoint} every
+ * few seconds. When a killed run is started again, the completed lines are skipped and the output continues where
+ * the checkpoint left it.
+ * <p>
+ * With a {@link SolutionCache}, puzzles solved by earlier runs are answered from the cache without searching, unless
+ * the searches are traced.
+ * <p>
+ * This class is the fast-start path of the application, so it must not use any AWT or Swing classes, and it avoids
+ * loading {@link SudokuBoard} unless a CSV file or a trace needs it.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class HeadlessSolver {
+    static final String OPTION = "--headless";
+    private static final Map<String, ConstraintModel> VARIANTS = Map.of("classic", ConstraintModel.CLASSIC,
+        "x", ConstraintModel.DIAGONAL, "hyper", ConstraintModel.HYPER);
+    private static final String USAGE = "Usage: sudoku " + OPTION
+        + " [--order row|mrv] [--variant classic|x|hyper] [--regions <line>] [--cages <file>] [--portfolio]"
+        + " [--trace <directory>] [--output <file> [--checkpoint <file>]] [--cache <file>] [--progress]"
+        + " [--stats] [file...]\n"
+        + "Reads puzzles from the standard input when no files are given. The regions of a jigsaw sudoku are given as\n"
+        + "a line with the region (1-" + SIZE + ") of every cell. Every line of a cages file holds the sum of a"
+        + " killer\n"
+        + "cage followed by its cells as <row><column>, e.g. \"10 11 12\". With a checkpoint, a run that was\n"
+        + "killed continues where it stopped when started again with the same arguments. A cache keeps the\n"
+        + "solutions of earlier runs.";
+    private static final long CHECKPOINT_INTERVAL_NANOS = 10_000_000_000L;
+    private static final long PROGRESS_INTERVAL_MILLIS = 1000;
+    /**
+     * The size limit of a solution cache, enough for about three million puzzles.
+     */
+    private static final long CACHE_BYTES = 256L << 20;
+
+    private final SolverEngine engine;
+    private final int[] cells = new int[SIZE * SIZE];
+    /**
+     * The puzzle being solved, kept for the {@link HeadlessSolver#cache} while its cells are replaced by the solution.
+     */
+    private final int[] puzzle = new int[SIZE * SIZE];
+    private final StringBuilder line = new StringBuilder(SIZE * SIZE);
+    private final PrintStream out;
+    private final PrintStream err;
+    /**
+     * The output file when the solutions are not written to the standard output.
+     */
+    private FileChannel output = null;
+    private Path checkpointFile = null;
+    private String inputs = null;
+    private int inputIndex = 0;
+    /**
+     * The number of lines of the current input that have been read, including blank lines and comments.
+     */
+    private long inputLine = 0;
+    /**
+     * The number of lines of the current input that were completed before the run was resumed.
+     */
+    private long skipLines = 0;
+    private long lastCheckpointNanos = 0;
+    private Path traceDirectory = null;
+    private PortfolioSolver portfolio = null;
+    private SolutionCache cache = null;
+    private int cacheHits = 0;
+    /**
+     * Number of puzzles solved by every strategy of the portfolio.
+     */
+    private final Map<String, Integer> wins = new TreeMap<>();
+    private int puzzleCount = 0;
+    private int failureCount = 0;
+    /**
+     * The puzzle being solved, for reporting progress from another thread.
+     */
+    private volatile int currentPuzzle = 0;
+    private long nodeCount = 0;
+    private long searchNanos = 0;
+    private long firstSolutionNanos = 0;
+    /**
+     * Number of puzzles which the {@link HardnessEstimator#PROBE_NODES probe} did not finish.
+     */
+    private int hardCount = 0;
+    private long predictedHardNodes = 0;
+    private long actualHardNodes = 0;
+    /**
+     * Number of hard puzzles whose number of nodes was predicted within a factor of four.
+     */
+    private int closePredictions = 0;
+
+    private HeadlessSolver(ConstraintModel model, PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+        engine = new SolverEngine(model);
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+    }
+
+    /**
+     * Solves the puzzles given by the command line arguments.
+     *
+     * @param args  the arguments following {@code --headless}
+     * @param stdin read when no input files are given
+     * @param out   receives the solutions
+     * @param err   receives errors and statistics
+     * @return the exit code of the process: {@code 0} if every puzzle was solved, {@code 1} if some puzzle could not
+     * be solved and {@code 2} if the arguments were invalid
+     * @throws IOException if an input cannot be read or a trace cannot be written
+     */
+    public static int run(String[] args, InputStream stdin, PrintStream out, PrintStream err) throws IOException {
+        final var start = System.nanoTime();
+        final var files = new ArrayList<Path>();
+        var order = CellOrder.MIN_REMAINING_VALUES;
+        var model = ConstraintModel.CLASSIC;
+        Path cages = null;
+        Path traceDirectory = null;
+        Path outputFile = null;
+        Path checkpointFile = null;
+        Path cacheFile = null;
+        var usePortfolio = false;
+        var printStats = false;
+        var printProgress = false;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--order":
+                    if (++i == args.length || !(args[i].equals("row") || args[i].equals("mrv"))) {
+                        err.println(USAGE);
+                        return 2;
+                    }
+                    order = args[i].equals("row") ? CellOrder.ROW_MAJOR : CellOrder.MIN_REMAINING_VALUES;
+                    break;
+                case "--variant":
+                    if (++i == args.length || !VARIANTS.containsKey(args[i])) {
+                        err.println(USAGE);
+                        return 2;
+                    }
+                    model = VARIANTS.get(args[i]);
+                    break;
+                case "--regions":
+                    if (++i == args.length) {
+                        err.println(USAGE);
+                        return 2;
+                    }
+                    try {
+                        model = parseRegions(args[i]);
+                    } catch (IllegalArgumentException e) {
+                        err.println("Invalid regions: " + e.getMessage());
+                        return 2;
+                    }
+                    break;
+                case "--cages":
+                    if (++i == args.length) {
+                        err.println(USAGE);
+                        return 2;
+                    }
+                    cages = Path.of(args[i]);
+                    break;
+                case "--trace":
+                    if (++i == args.length) {
+                        err.println(USAGE);
+                        return 2;
+                    }
+                    traceDirectory = Files.createDirectories(Path.of(args[i]));
+                    break;
+                case "--output":
+                    if (++i == args.length) {
+                        err.println(USAGE);
+                        return 2;
+                    }
+                    outputFile = Path.of(args[i]);
+                    break;
+                case "--checkpoint":
+                    if (++i == args.length) {
+                        err.println(USAGE);
+                        return 2;
+                    }
+                    checkpointFile = Path.of(args[i]);
+                    break;
+                case "--cache":
+                    if (++i == args.length) {
+                        err.println(USAGE);
+                        return 2;
+                    }
+                    cacheFile = Path.of(args[i]);
+                    break;
+                case "--portfolio":
+                    usePortfolio = true;
+                    break;
+                case "--progress":
+                    printProgress = true;
+                    break;
+                case "--stats":
+                    printStats = true;
+                    break;
+                case "--help":
+                    out.println(USAGE);
+                    return 0;
+                default:
+                    if (args[i].startsWith("--")) {
+                        err.println(USAGE);
+                        return 2;
+                    }
+                    files.add(Path.of(args[i]));
+            }
+        }
+
+        if (checkpointFile != null && outputFile == null) {
+            err.println("A checkpoint needs an output file.");
+            err.println(USAGE);
+            return 2;
+        }
+
+        if (cages != null) {
+            try {
+                model = parseCages(model, cages);
+            } catch (IllegalArgumentException e) {
+                err.println("Invalid cages: " + e.getMessage());
+                return 2;
+            }
+        }
+
+        final var inputs = files.isEmpty() ? "-"
+            : files.stream().map(Path::toString).collect(Collectors.joining(File.pathSeparator));
+        BatchCheckpoint resumeFrom = null;
+        if (checkpointFile != null) {
+            try {
+                resumeFrom = BatchCheckpoint.read(checkpointFile).orElse(null);
+            } catch (IllegalArgumentException e) {
+                err.println(e.getMessage());
+                return 2;
+            }
+
+            if (resumeFrom != null && !resumeFrom.getInputs().equals(inputs)) {
+                err.println("The checkpoint " + checkpointFile + " belongs to a run with different inputs.");
+                return 2;
+            }
+        }
+
+        SolutionCache cache = null;
+        if (cacheFile != null) {
+            try {
+                cache = SolutionCache.open(cacheFile, model, CACHE_BYTES);
+            } catch (IllegalArgumentException e) {
+                err.println(e.getMessage());
+                return 2;
+            }
+        }
+
+        FileChannel output = null;
+        var solutions = out;
+        if (outputFile != null) {
+            output = FileChannel.open(outputFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // anything written after the last checkpoint is solved again
+            output.truncate(resumeFrom == null ? 0 : resumeFrom.getOutputOffset());
+            output.position(output.size());
+            solutions = new PrintStream(new BufferedOutputStream(Channels.newOutputStream(output), 1 << 16), false,
+                StandardCharsets.UTF_8);
+        }
+
+        final var solver = new HeadlessSolver(model, solutions, err);
+        solver.engine.setCellOrder(order);
+        solver.traceDirectory = traceDirectory;
+        solver.output = output;
+        solver.checkpointFile = checkpointFile;
+        solver.inputs = inputs;
+        solver.lastCheckpointNanos = System.nanoTime();
+        if (resumeFrom != null) {
+            solver.puzzleCount = resumeFrom.getPuzzleCount();
+            solver.failureCount = resumeFrom.getFailureCount();
+        }
+        if (usePortfolio) {
+            solver.portfolio = new PortfolioSolver(model, PortfolioSolver.DEFAULT_STRATEGIES);
+        }
+        solver.cache = cache;
+
+        Timer progressTimer = null;
+        if (printProgress) {
+            progressTimer = new Timer("progress", true);
+            progressTimer.schedule(solver.new ProgressReport(), PROGRESS_INTERVAL_MILLIS, PROGRESS_INTERVAL_MILLIS);
+        }
+
+        try {
+            for (int i = resumeFrom == null ? 0 : resumeFrom.getInputIndex(); i < Math.max(files.size(), 1); i++) {
+                solver.inputIndex = i;
+                solver.inputLine = 0;
+                solver.skipLines = resumeFrom != null && i == resumeFrom.getInputIndex()
+                    ? resumeFrom.getInputLine() : 0;
+
+                if (files.isEmpty()) {
+                    solver.solveLines(new BufferedReader(new InputStreamReader(stdin, StandardCharsets.UTF_8)));
+                } else if (files.get(i).getFileName().toString().toLowerCase().endsWith(".csv")) {
+                    if (solver.skipLines == 0) {
+                        SudokuBoard.load(files.get(i).toUri()).copyTo(solver.cells);
+                        solver.solveCells();
+                    }
+                } else {
+                    try (var reader = Files.newBufferedReader(files.get(i), StandardCharsets.UTF_8)) {
+                        solver.solveLines(reader);
+                    }
+                }
+            }
+
+            solver.inputIndex = Math.max(files.size(), 1);
+            solver.inputLine = 0;
+            solver.out.flush();
+            if (checkpointFile != null) {
+                solver.checkpoint();
+            }
+        } finally {
+            if (progressTimer != null) {
+                progressTimer.cancel();
+            }
+            if (solver.portfolio != null) {
+                solver.portfolio.close();
+            }
+            if (solver.cache != null) {
+                solver.cache.close();
+            }
+            if (output != null) {
+                solver.out.close();
+            }
+        }
+
+        if (printStats) {
+            final var millis = (System.nanoTime() - start) / 1e6;
+            err.printf("Solved %d of %d puzzles in %.2f ms", solver.puzzleCount - solver.failureCount,
+                solver.puzzleCount, millis);
+            if (solver.firstSolutionNanos != 0) {
+                // loading the management classes is slow, so the JVM start time is only looked up at the end
+                final var uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+                final var sinceFirstSolution = (System.nanoTime() - solver.firstSolutionNanos) / 1e6;
+                err.printf(", first solution %.2f ms after JVM start", uptime - sinceFirstSolution);
+            }
+            err.println();
+            if (solver.cache != null) {
+                err.printf("Answered %d puzzles from the cache%n", solver.cacheHits);
+            }
+            if (solver.nodeCount > 0) {
+                err.printf("Searched %d nodes at %.0f nodes/s%n", solver.nodeCount,
+                    solver.nodeCount * 1e9 / Math.max(solver.searchNanos, 1));
+            }
+            if (solver.hardCount > 0) {
+                err.printf("Predicted %d nodes for %d hard puzzles", solver.predictedHardNodes, solver.hardCount);
+                if (solver.portfolio == null) {
+                    err.printf(", searched %d, %d predictions within 4x", solver.actualHardNodes,
+                        solver.closePredictions);
+                }
+                err.println();
+            }
+            solver.wins.forEach((strategy, count) -> err.printf("  %s won %d%n", strategy, count));
+        }
+
+        return solver.failureCount == 0 ? 0 : 1;
+    }
+
+    /**
+     * Parses the regions of a jigsaw sudoku from a line like the ones of {@link BoardLines}, where the value of every
+     * cell is its region.
+     */
+    private static ConstraintModel parseRegions(String line) {
+        final var regions = new int[SIZE * SIZE];
+        BoardLines.parse(line, regions);
+        for (int cell = 0; cell < regions.length; cell++) {
+            if (regions[cell] == 0) {
+                throw new IllegalArgumentException("Every cell should belong to a region");
+            }
+            regions[cell]--;
+        }
+        return ConstraintModel.jigsaw(regions);
+    }
+
+    /**
+     * Adds the Killer sudoku cages of a file to the units of a model.
+     */
+    private static ConstraintModel parseCages(ConstraintModel units, Path file) throws IOException {
+        final var builder = ConstraintModel.builder("killer");
+        for (int unit = 0; unit < units.getUnitCount(); unit++) {
+            final var cells = new int[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                cells[i] = units.getUnitCell(unit, i);
+            }
+            builder.unit(units.getUnitType(unit), cells);
+        }
+
+        for (var cage : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            cage = cage.strip();
+            if (cage.isEmpty() || cage.startsWith("#")) {
+                continue;
+            }
+
+            final var fields = cage.split("\\s+");
+            final var cells = new int[fields.length - 1];
+            for (int i = 1; i < fields.length; i++) {
+                if (!fields[i].matches("[1-9][1-9]")) {
+                    throw new IllegalArgumentException(String.format("\"%s\" is not a cell", fields[i]));
+                }
+                cells[i - 1] = (fields[i].charAt(0) - '1') * SIZE + fields[i].charAt(1) - '1';
+            }
+
+            try {
+                builder.cage(Integer.parseInt(fields[0]), cells);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format("\"%s\" is not a sum", fields[0]), e);
+            }
+        }
+        return builder.build();
+    }
+
+    private void solveLines(BufferedReader reader) throws IOException {
+        String input;
+        while ((input = reader.readLine()) != null) {
+            if (checkpointFile != null && System.nanoTime() - lastCheckpointNanos >= CHECKPOINT_INTERVAL_NANOS) {
+                checkpoint();
+            }
+            if (inputLine++ < skipLines) {
+                continue;
+            }
+
+            input = input.strip();
+            if (input.isEmpty() || input.startsWith("#")) {
+                continue;
+            }
+
+            try {
+                BoardLines.parse(input, cells);
+            } catch (IllegalArgumentException e) {
+                puzzleCount++;
+                failureCount++;
+                err.println("Puzzle " + puzzleCount + ": " + e.getMessage());
+                out.println("invalid");
+                continue;
+            }
+
+            solveCells();
+        }
+    }
+
+    /**
+     * Records that every line of the current input before {@link HeadlessSolver#inputLine} has been solved, after
+     * forcing their solutions to the disk.
+     */
+    private void checkpoint() throws IOException {
+        out.flush();
+        output.force(false);
+        new BatchCheckpoint(inputs, inputIndex, inputLine, output.position(), puzzleCount, failureCount)
+            .write(checkpointFile);
+        lastCheckpointNanos = System.nanoTime();
+    }
+
+    private void solveCells() throws IOException {
+        puzzleCount++;
+
+        // a trace needs the search itself
+        final var useCache = cache != null && traceDirectory == null;
+        final var cached = useCache ? cache.get(cells, cells) : null;
+        boolean solved;
+        if (cached != null) {
+            cacheHits++;
+            solved = cached == SolveStatus.SOLVED;
+        } else {
+            if (useCache) {
+                System.arraycopy(cells, 0, puzzle, 0, cells.length);
+            }
+            solved = search();
+            if (useCache) {
+                cache.put(puzzle, solved ? cells : null);
+            }
+        }
+
+        if (firstSolutionNanos == 0) {
+            firstSolutionNanos = System.nanoTime();
+        }
+
+        if (solved) {
+            line.setLength(0);
+            out.append(BoardLines.format(cells, line)).println();
+        } else {
+            failureCount++;
+            out.println("unsolvable");
+        }
+    }
+
+    /**
+     * Solves {@link HeadlessSolver#cells} with the engine or the portfolio and replaces them with the solution. The
+     * engine first probes the puzzle, and only the puzzles which the probe does not finish go to the portfolio.
+     *
+     * @return true if the puzzle was solved
+     */
+    private boolean search() throws IOException {
+        engine.reset(cells);
+        currentPuzzle = puzzleCount;
+        final var searchStart = System.nanoTime();
+        SolveStatus status;
+        if (traceDirectory != null) {
+            engine.setNodeLimit(Long.MAX_VALUE);
+            status = solveWithTrace(traceDirectory.resolve(puzzleCount + ".trace"));
+        } else {
+            // most puzzles are finished by the probe, which also predicts the effort for the rest
+            engine.setNodeLimit(HardnessEstimator.PROBE_NODES);
+            status = engine.solve();
+            if (status == SolveStatus.CANCELLED && engine.getNodeCount() >= HardnessEstimator.PROBE_NODES) {
+                final var predicted = HardnessEstimator.predictNodes(engine);
+                hardCount++;
+                predictedHardNodes += predicted;
+                if (portfolio != null) {
+                    nodeCount += engine.getNodeCount();
+                    searchNanos += System.nanoTime() - searchStart;
+                    return solveWithPortfolio();
+                }
+
+                engine.setNodeLimit(Long.MAX_VALUE);
+                status = engine.solve();
+                final var actual = engine.getNodeCount();
+                actualHardNodes += actual;
+                if (predicted <= 4 * actual && actual <= 4 * predicted) {
+                    closePredictions++;
+                }
+            }
+        }
+        searchNanos += System.nanoTime() - searchStart;
+        nodeCount += engine.getNodeCount();
+        if (status == SolveStatus.SOLVED) {
+            engine.copyCells(cells);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Solves {@link HeadlessSolver#cells} with the portfolio and replaces them with the solution.
+     *
+     * @return true if the puzzle was solved
+     */
+    private boolean solveWithPortfolio() throws InterruptedIOException {
+        try {
+            final var result = portfolio.solve(SudokuBoard.of(cells));
+            result.getBoard().copyTo(cells);
+            wins.merge(result.getStrategy(), 1, Integer::sum);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while solving puzzle " + puzzleCount);
+        }
+    }
+
+    /**
+     * Reports the progress of puzzles which take longer than {@link HeadlessSolver#PROGRESS_INTERVAL_MILLIS}.
+     */
+    private class ProgressReport extends TimerTask {
+        @Override
+        public void run() {
+            final var progress = engine.getProgress();
+            if (TimeUnit.NANOSECONDS.toMillis(progress.getElapsedNanos()) >= PROGRESS_INTERVAL_MILLIS) {
+                err.println("Puzzle " + currentPuzzle + ": " + progress);
+            }
+        }
+    }
+
+    private SolveStatus solveWithTrace(Path file) throws IOException {
+        try (var recorder = new TraceRecorder(Files.newOutputStream(file), SudokuBoard.of(cells))) {
+            engine.setMoveListener(new MoveListener() {
+                @Override
+                public void onAssignment(int row, int col, int oldValue, int newValue) {
+                    try {
+                        recorder.record(row, col, newValue);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+            return engine.solve();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            engine.setMoveListener(null);
+        }
+    }
+}
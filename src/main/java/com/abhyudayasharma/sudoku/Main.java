@@ -24,22 +24,36 @@
 
 package com.abhyudayasharma.sudoku;
 
-import lombok.extern.slf4j.Slf4j;
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
-import javax.swing.SwingUtilities;
-import javax.swing.UIManager;
-import javax.swing.UnsupportedLookAndFeelException;
-import javax.swing.plaf.nimbus.NimbusLookAndFeel;
-
-@Slf4j
+/**
+ * Entry point of the application.
+ * <p>
+ * With {@code --headless} as the first argument, puzzles are solved by {@link HeadlessSolver} without loading any
+ * AWT or Swing classes, and with {@code --dedup} duplicate puzzles are removed by {@link Deduplicator}. Otherwise the
+ * Swing user interface is started.
+ */
 public class Main {
-    public static void main(String[] args) {
-        try {
-            UIManager.setLookAndFeel(new NimbusLookAndFeel());
-        } catch (UnsupportedLookAndFeelException e) {
-            log.warn("Unable to set Nimbus Look and Feel for the application.", e);
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals(HeadlessSolver.OPTION)) {
+            var out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)), false,
+                StandardCharsets.UTF_8);
+            var exitCode = HeadlessSolver.run(Arrays.copyOfRange(args, 1, args.length), System.in, out, System.err);
+            System.exit(exitCode);
+        }
+
+        if (args.length > 0 && args[0].equals(Deduplicator.OPTION)) {
+            var out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)), false,
+                StandardCharsets.UTF_8);
+            System.exit(Deduplicator.run(Arrays.copyOfRange(args, 1, args.length), System.in, out, System.err));
         }
 
-        SwingUtilities.invokeLater(() -> new Sudoku().start());
+        Sudoku.launch();
     }
 }
@@ -26,11 +26,19 @@ package com.abhyudayasharma.sudoku;
 
 import com.abhyudayasharma.sudoku.core.AbstractMove;
 import com.abhyudayasharma.sudoku.core.AssignmentMove;
+import com.abhyudayasharma.sudoku.core.Feasibility;
+import com.abhyudayasharma.sudoku.core.FeasibilityChecker;
+import com.abhyudayasharma.sudoku.core.Hint;
+import com.abhyudayasharma.sudoku.core.HintService;
+import com.abhyudayasharma.sudoku.core.SearchProgress;
+import com.abhyudayasharma.sudoku.core.SolveTrace;
 import com.abhyudayasharma.sudoku.core.SudokuSolver;
+import com.abhyudayasharma.sudoku.core.TraceRecorder;
 import com.abhyudayasharma.sudoku.ui.SudokuTable;
 import com.abhyudayasharma.sudoku.ui.SudokuTableModel;
 import lombok.extern.slf4j.Slf4j;
 import net.miginfocom.swing.MigLayout;
+import org.apache.commons.io.FilenameUtils;
 
 import javax.swing.JButton;
 import javax.swing.JFileChooser;
@@ -42,14 +50,25 @@ import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JSeparator;
 import javax.swing.JSlider;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.UIManager;
+import javax.swing.UnsupportedLookAndFeelException;
 import javax.swing.WindowConstants;
 import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.plaf.nimbus.NimbusLookAndFeel;
 import java.awt.Font;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A Sudoku puzzle emulation which can solve all valid Sudoku puzzles.
@@ -68,8 +87,41 @@ public class Sudoku {
     private final JButton solveButton = new JButton("Solve");
     private final JButton clearButton = new JButton("Clear");
     private final JButton stopButton = new JButton("Stop");
+    private final JButton hintButton = new JButton("Hint");
     private final JLabel solvedLabel = new JLabel("Ready...");
+    /**
+     * Tells whether the board being entered can be solved.
+     */
+    private final JLabel feasibilityLabel = new JLabel(" ");
+    private final JSlider replaySlider = new JSlider(0, 0, 0);
     private SudokuSolver solver = null;
+    /**
+     * Shows the progress of the running solver in {@link Sudoku#solvedLabel}.
+     */
+    private final Timer progressTimer = new Timer(500, e -> {
+        if (solver != null && !solver.isDone()) {
+            final var progress = solver.getSearchProgress();
+            if (progress != SearchProgress.NONE) {
+                solvedLabel.setText("Solving... " + progress);
+            }
+        }
+    });
+    private SolveTrace trace = null;
+    private final HintService hintService = new HintService();
+    private final FeasibilityChecker feasibilityChecker = new FeasibilityChecker();
+
+    /**
+     * Installs the Nimbus Look and Feel and shows a new {@link Sudoku} window on the event dispatch thread.
+     */
+    static void launch() {
+        try {
+            UIManager.setLookAndFeel(new NimbusLookAndFeel());
+        } catch (UnsupportedLookAndFeelException e) {
+            log.warn("Unable to set Nimbus Look and Feel for the application.", e);
+        }
+
+        SwingUtilities.invokeLater(() -> new Sudoku().start());
+    }
 
     void start() {
         initFrame();
@@ -94,18 +146,32 @@ public class Sudoku {
                 var board = table.getBoard();
                 stopButton.setEnabled(true);
                 slider.setEnabled(false);
+                setTrace(null);
+
+                final var traceBuffer = new ByteArrayOutputStream();
+                TraceRecorder recorder = null;
+                try {
+                    recorder = new TraceRecorder(traceBuffer, board);
+                } catch (IOException e) {
+                    log.warn("Unable to record the solve.", e);
+                }
+
+                final var traceRecorder = recorder;
                 solver = new SudokuSolver(board, 10 - slider.getValue()) {
                     @Override
                     protected void done() {
+                        progressTimer.stop();
                         try {
                             final var result = get();
                             final var newModel = new SudokuTableModel(result.getBoard());
                             newModel.setEditable(false);
                             table.setModel(newModel);
                             solvedLabel.setText("Solved");
+                            loadTrace();
                         } catch (CancellationException e) {
                             clearButton.doClick();
                         } catch (Exception e) {
+                            loadTrace();
                             JOptionPane.showMessageDialog(frame, "Unable to solve: " + e.getCause().getMessage(),
                                 "Error", JOptionPane.ERROR_MESSAGE);
                             table.getModel().setEditable(true);
@@ -118,6 +184,23 @@ public class Sudoku {
                         }
                     }
 
+                    /**
+                     * Makes the recorded solve available for replay. Must only be called after the solver has
+                     * stopped writing to the recorder.
+                     */
+                    private void loadTrace() {
+                        if (traceRecorder == null) {
+                            return;
+                        }
+
+                        try {
+                            traceRecorder.close();
+                            setTrace(SolveTrace.read(new ByteArrayInputStream(traceBuffer.toByteArray())));
+                        } catch (IOException e) {
+                            log.warn("Unable to read the recorded solve.", e);
+                        }
+                    }
+
                     @Override
                     protected void process(List<AbstractMove> moves) {
                         for (var move : moves) {
@@ -130,18 +213,21 @@ public class Sudoku {
                         }
                     }
                 };
+                solver.setTraceRecorder(traceRecorder);
 
                 clearButton.setEnabled(false);
                 solveButton.setEnabled(false);
                 solvedLabel.setText("Solving...");
                 table.getModel().setEditable(false);
                 solver.execute();
+                progressTimer.start();
             }
         });
 
         clearButton.addActionListener(new TableActionListener() {
             @Override
             void actionPerformed() {
+                setTrace(null);
                 table.clear();
                 slider.setEnabled(true);
                 table.getModel().setEditable(true);
@@ -150,6 +236,34 @@ public class Sudoku {
             }
         });
 
+        table.addEditListener(() -> {
+            try {
+                var board = table.getBoard();
+                hintService.boardChanged(board);
+                showFeasibility(feasibilityChecker.check(board));
+            } catch (IllegalArgumentException e) {
+                log.debug("Not computing hints for an invalid board.", e);
+                feasibilityLabel.setText(" ");
+            }
+        });
+
+        hintButton.addActionListener(new TableActionListener() {
+            @Override
+            void actionPerformed() {
+                var board = table.getBoard();
+                var future = hintService.hint(board);
+                if (!future.isDone()) {
+                    solvedLabel.setText("Finding a hint...");
+                }
+
+                future.whenComplete((hint, error) -> SwingUtilities.invokeLater(() -> {
+                    if (!future.isCancelled()) { // cancelled futures belong to boards which have been edited since
+                        showHint(hint, error);
+                    }
+                }));
+            }
+        });
+
         stopButton.addActionListener(e -> {
             if (solver != null) {
                 solver.cancel(true);
@@ -162,7 +276,22 @@ public class Sudoku {
         frame.add(solveButton);
         frame.add(clearButton);
         frame.add(stopButton);
-        frame.add(solvedLabel);
+        frame.add(hintButton);
+        frame.add(solvedLabel, "wrap");
+
+        replaySlider.setEnabled(false);
+        replaySlider.addChangeListener(e -> {
+            if (trace != null) {
+                final var step = replaySlider.getValue();
+                final var model = new SudokuTableModel(trace.boardAt(step));
+                model.setEditable(false);
+                table.setModel(model);
+                solvedLabel.setText(String.format("Step %d of %d", step, trace.getStepCount()));
+            }
+        });
+        frame.add(new JLabel("Replay:"));
+        frame.add(replaySlider, "span, growx");
+        frame.add(feasibilityLabel, "newline, span");
 
         frame.pack();
         frame.setVisible(true);
@@ -182,6 +311,8 @@ public class Sudoku {
 
         var loadFromFile = new JMenuItem("Load...");
         var saveToFile = new JMenuItem("Save...");
+        var openTrace = new JMenuItem("Open Trace...");
+        var saveTrace = new JMenuItem("Save Trace...");
         var exitMenuItem = new JMenuItem("Exit");
 
         loadFromFile.addActionListener(new TableActionListener() {
@@ -240,17 +371,132 @@ public class Sudoku {
             }
         });
 
+        openTrace.addActionListener(new TableActionListener() {
+            @Override
+            void actionPerformed() {
+                var fileChooser = createTraceFileChooser();
+                var response = fileChooser.showOpenDialog(frame);
+                if (response == JFileChooser.APPROVE_OPTION) {
+                    try {
+                        setTrace(SolveTrace.read(fileChooser.getSelectedFile().toPath()));
+                        replaySlider.setValue(0);
+                        solveButton.setEnabled(false);
+                    } catch (Exception ex) {
+                        JOptionPane.showMessageDialog(frame,
+                            "Error while trying to read the trace:\n" + ex.getMessage(), "Error reading file",
+                            JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }
+        });
+
+        saveTrace.addActionListener(new TableActionListener() {
+            @Override
+            void actionPerformed() {
+                if (trace == null) {
+                    JOptionPane.showMessageDialog(frame, "Solve a puzzle before saving its trace.",
+                        "No trace", JOptionPane.INFORMATION_MESSAGE);
+                    return;
+                }
+
+                var fileChooser = createTraceFileChooser();
+                var response = fileChooser.showSaveDialog(frame);
+                if (response == JFileChooser.APPROVE_OPTION) {
+                    var selectedFile = fileChooser.getSelectedFile();
+                    if (!FilenameUtils.getExtension(selectedFile.getName()).equalsIgnoreCase("trace")) {
+                        selectedFile = new File(selectedFile.toString() + ".trace");
+                    }
+
+                    try (var out = new FileOutputStream(selectedFile)) {
+                        trace.write(out);
+                    } catch (IOException ex) {
+                        JOptionPane.showMessageDialog(frame, "Unable to save the trace: " + ex.getMessage(),
+                            "Unable to save", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }
+        });
+
         exitMenuItem.addActionListener(e -> frame.dispose());
         exitMenuItem.setMnemonic('x');
 
         fileMenu.add(loadFromFile);
         fileMenu.add(saveToFile);
         fileMenu.add(new JSeparator());
+        fileMenu.add(openTrace);
+        fileMenu.add(saveTrace);
+        fileMenu.add(new JSeparator());
         fileMenu.add(exitMenuItem);
         menuBar.add(fileMenu);
         return menuBar;
     }
 
+    /**
+     * Shows a hint computed by the {@link HintService}.
+     *
+     * @param hint  the hint, or {@link Optional#empty()} if there is no hint for the board
+     * @param error the error that happened while computing the hint, if any
+     */
+    private void showHint(Optional<Hint> hint, Throwable error) {
+        if (error != null || hint == null) {
+            solvedLabel.setText("No hint available");
+        } else if (hint.isEmpty()) {
+            solvedLabel.setText("No hint: the puzzle is complete or has no solution");
+        } else {
+            var h = hint.get();
+            solvedLabel.setText(String.format("Hint: %d at row %d, column %d because %s", h.getValue(),
+                h.getRow() + 1, h.getCol() + 1, h.getReason().getDescription()));
+        }
+    }
+
+    /**
+     * Shows the result of a {@link FeasibilityChecker} check once it is known, unless the board has been edited again
+     * in the meantime.
+     *
+     * @param future the running check
+     */
+    private void showFeasibility(CompletableFuture<Feasibility> future) {
+        future.whenComplete((feasibility, error) -> SwingUtilities.invokeLater(() -> {
+            if (!future.isCancelled()) { // cancelled futures belong to boards which have been edited since
+                feasibilityLabel.setText(error != null ? " " : "The puzzle " + feasibility.getDescription());
+            }
+        }));
+    }
+
+    /**
+     * Creates a {@link JFileChooser} for solve traces.
+     *
+     * @return a new {@link JFileChooser} that selects a single trace file
+     */
+    private JFileChooser createTraceFileChooser() {
+        var fileChooser = new JFileChooser();
+        var filter = new FileNameExtensionFilter("Solve traces", "trace");
+        fileChooser.addChoosableFileFilter(filter);
+        fileChooser.setFileFilter(filter);
+        fileChooser.setMultiSelectionEnabled(false);
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
+        return fileChooser;
+    }
+
+    /**
+     * Sets the trace that can be replayed with the replay slider.
+     *
+     * @param newTrace the trace to replay, or {@code null} to disable replay
+     */
+    private void setTrace(SolveTrace newTrace) {
+        trace = null; // do not replay while the slider is being reset
+        if (newTrace == null) {
+            replaySlider.setValue(0);
+            replaySlider.setMaximum(0);
+            replaySlider.setEnabled(false);
+        } else {
+            replaySlider.setMaximum(newTrace.getStepCount());
+            replaySlider.setValue(newTrace.getStepCount());
+            replaySlider.setEnabled(true);
+            trace = newTrace;
+        }
+    }
+
     private abstract class TableActionListener implements ActionListener {
         @Override
         public final void actionPerformed(ActionEvent actionEvent) {
@@ -24,6 +24,8 @@
 
 package com.abhyudayasharma.sudoku;
 
+import com.abhyudayasharma.sudoku.core.BoardLines;
+import com.abhyudayasharma.sudoku.core.ConstraintModel;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -34,7 +36,6 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -90,6 +91,52 @@ public class SudokuBoard {
         this.matrix = matrix;
     }
 
+    /**
+     * Creates a {@link SudokuBoard} from a copy of the given matrix.
+     *
+     * @param matrix a {@link SudokuBoard#SIZE} x {@link SudokuBoard#SIZE} matrix with {@code 0} for empty cells
+     * @return a new {@link SudokuBoard} with the values of the matrix
+     * @throws IllegalArgumentException if the matrix has the wrong dimensions or contains invalid values
+     */
+    public static SudokuBoard of(int[][] matrix) {
+        return new SudokuBoard(Arrays.stream(matrix).map(int[]::clone).toArray(int[][]::new));
+    }
+
+    /**
+     * Creates a {@link SudokuBoard} from values in row-major order.
+     *
+     * @param cells {@link SudokuBoard#SIZE}&nbsp;{@code *}&nbsp;{@link SudokuBoard#SIZE} values with {@code 0} for
+     *              empty cells
+     * @return a new {@link SudokuBoard} with the given values
+     * @throws IllegalArgumentException if the number of values is wrong or any value is invalid
+     */
+    public static SudokuBoard of(int[] cells) {
+        if (cells.length != SIZE * SIZE) {
+            throw new IllegalArgumentException(String.format("The board should have %d cells", SIZE * SIZE));
+        }
+
+        int[][] matrix = new int[SIZE][SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            System.arraycopy(cells, i * SIZE, matrix[i], 0, SIZE);
+        }
+        return new SudokuBoard(matrix);
+    }
+
+    /**
+     * Creates a {@link SudokuBoard} from a single line with one character per cell in row-major order, as described
+     * by {@link BoardLines}.
+     *
+     * @param line the line to parse, containing exactly {@link SudokuBoard#SIZE}&nbsp;{@code *}&nbsp;{@link
+     *             SudokuBoard#SIZE} characters
+     * @return a new {@link SudokuBoard} with the values of the line
+     * @throws IllegalArgumentException if the line has the wrong length or contains an invalid character
+     */
+    public static SudokuBoard parse(CharSequence line) {
+        var cells = new int[SIZE * SIZE];
+        BoardLines.parse(line, cells);
+        return of(cells);
+    }
+
     /**
      * Creates a {@link SudokuBoard} from the CSV file.
      *
@@ -198,67 +245,43 @@ public class SudokuBoard {
      * @return true if the {@link SudokuBoard} is valid.
      */
     public boolean isValid() {
-        final var rowInts = new HashSet<Integer>();
-        final var colInts = new HashSet<Integer>();
-
-        // check for for duplicates in every row and column
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                final var rowValue = matrix[i][j];
-                if ((rowValue != 0 && rowInts.contains(rowValue))) {
-                    return false;
-                } else {
-                    rowInts.add(rowValue);
-                }
-
-                final var colValue = matrix[j][i];
-                if (colValue != 0 && colInts.contains(colValue)) {
-                    return false;
-                } else {
-                    colInts.add(colValue);
-                }
-            }
-
-            rowInts.clear();
-            colInts.clear();
-        }
+        return isValid(ConstraintModel.CLASSIC);
+    }
 
-        // now check the squares inside the big square.
-        // for an n * n sudoku, there are n small squares inside it.
-        // each sqrt(n) wide row contains sqrt(n) small squares.
-        final var intsInSquare = new HashSet<Integer>();
-        final var sqrt = (int) Math.rint(Math.sqrt(SIZE));
-
-        for (int i = 0; i < sqrt; i++) {
-            final var rowStart = sqrt * i;
-            final var rowEnd = rowStart + sqrt; // non-inclusive
-
-            for (int j = 0; j < sqrt; j++) {
-                final var colStart = sqrt * j;
-                final var colEnd = colStart + sqrt; // non-inclusive, again
-
-                // go over every element of this square
-                for (int k = rowStart; k < rowEnd; k++) {
-                    for (int l = colStart; l < colEnd; l++) {
-                        final var value = matrix[k][l];
-
-                        if (value == 0) {
-                            continue;
-                        }
-
-                        if (intsInSquare.contains(value)) {
-                            return false;
-                        } else {
-                            intsInSquare.add(value);
-                        }
-                    }
-                }
+    /**
+     * Return true if no unit of the given sudoku variant holds a value twice.
+     *
+     * @param model the units of the variant
+     * @return true if the {@link SudokuBoard} is valid for the variant
+     */
+    public boolean isValid(ConstraintModel model) {
+        var cells = new int[SIZE * SIZE];
+        copyTo(cells);
+        return model.isConsistent(cells);
+    }
 
-                intsInSquare.clear();
-            }
+    /**
+     * Copy the values of the board into {@code cells} in row-major order, using {@code 0} for empty cells.
+     * <p>
+     * Unlike {@link SudokuBoard#asMatrix()}, this does not allocate.
+     *
+     * @param cells an array of at least {@link SudokuBoard#SIZE}&nbsp;{@code *}&nbsp;{@link SudokuBoard#SIZE} values
+     */
+    public void copyTo(int[] cells) {
+        for (int i = 0; i < SIZE; i++) {
+            System.arraycopy(matrix[i], 0, cells, i * SIZE, SIZE);
         }
+    }
 
-        return true;
+    /**
+     * Return the board as a single line in the format described by {@link BoardLines}.
+     *
+     * @return the board as a single line
+     */
+    public String toLine() {
+        var cells = new int[SIZE * SIZE];
+        copyTo(cells);
+        return BoardLines.format(cells, new StringBuilder(SIZE * SIZE)).toString();
     }
 
     /**
@@ -0,0 +1,377 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solves boards on a bounded pool of threads and returns the results as {@link CompletableFuture futures}, for
+ * applications that do not use Swing.
+ * <p>
+ * At most {@code queueCapacity} boards wait for a thread; what happens to boards submitted beyond that is decided by
+ * the {@link RejectionPolicy}. A rejected board never throws from {@link AsyncSolver#solve(SudokuBoard)}: its future
+ * completes exceptionally with a {@link RejectedExecutionException} instead, so that callers can compose solves
+ * without special cases. Completing a future in any way, for example with {@link CompletableFuture#cancel(boolean)} or
+ * {@link CompletableFuture#orTimeout(long, TimeUnit)}, stops its search through {@link SolverEngine#cancel()}.
+ * <p>
+ * A board without a solution completes its future with an {@link IllegalArgumentException}, like the other solvers.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class AsyncSolver implements AutoCloseable {
+    /**
+     * What to do with a board that is submitted while the queue is full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Complete the future of the new board with a {@link RejectedExecutionException}.
+         */
+        FAIL,
+        /**
+         * Solve the new board on the submitting thread, which slows down the producer.
+         */
+        CALLER_RUNS,
+        /**
+         * Complete the future of the board that has waited longest with a {@link RejectedExecutionException} and
+         * queue the new board instead.
+         */
+        DISCARD_OLDEST
+    }
+
+    @Getter
+    private final ConstraintModel model;
+    @Getter
+    private final SolverStrategy strategy;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    /**
+     * The largest number of boards of a single {@link AsyncSolver#solveAll(Collection)} call that are handed to the
+     * executor at the same time.
+     */
+    private final int batchWindow;
+    /**
+     * The boards being solved, guarded by itself.
+     */
+    private final List<Task> active = new ArrayList<>();
+    private boolean closed = false;
+
+    /**
+     * Creates a solver for classic boards with one thread per processor and a queue of 1024 boards that fails boards
+     * submitted beyond that.
+     */
+    public AsyncSolver() {
+        this(ConstraintModel.CLASSIC, SolverStrategy.MIN_REMAINING_VALUES, Runtime.getRuntime().availableProcessors(),
+            1024, RejectionPolicy.FAIL);
+    }
+
+    /**
+     * Creates a solver with its own pool of threads.
+     *
+     * @param model         the units of the variant to solve
+     * @param strategy      the strategy of every search
+     * @param threads       the number of boards solved at the same time
+     * @param queueCapacity the number of boards that may wait for a thread
+     * @param policy        what to do with boards submitted while the queue is full
+     * @throws IllegalArgumentException if the number of threads or the capacity is not positive
+     */
+    public AsyncSolver(@NonNull ConstraintModel model, @NonNull SolverStrategy strategy, int threads,
+                       int queueCapacity, @NonNull RejectionPolicy policy) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("The number of threads and the queue capacity should be positive");
+        }
+
+        this.model = model;
+        this.strategy = strategy;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new DaemonThreadFactory("async"), rejectionHandler(policy));
+        this.ownsExecutor = true;
+        this.batchWindow = queueCapacity;
+    }
+
+    /**
+     * Creates a solver that runs on the given executor, which is not shut down by {@link AsyncSolver#close()}. Boards
+     * that the executor rejects complete exceptionally, and the boards of a {@link AsyncSolver#solveAll(Collection)}
+     * call are all handed to it at once.
+     *
+     * @param model    the units of the variant to solve
+     * @param strategy the strategy of every search
+     * @param executor the executor that runs the searches
+     */
+    public AsyncSolver(@NonNull ConstraintModel model, @NonNull SolverStrategy strategy, @NonNull Executor executor) {
+        this.model = model;
+        this.strategy = strategy;
+        this.executor = executor;
+        this.ownsExecutor = false;
+        this.batchWindow = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Starts solving a board.
+     *
+     * @param board the board to solve
+     * @return a future that completes with the solution
+     */
+    public CompletableFuture<Result> solve(@NonNull SudokuBoard board) {
+        final var task = new Task(board, Long.MAX_VALUE, null);
+        execute(task);
+        return task.future;
+    }
+
+    /**
+     * Starts solving several boards.
+     * <p>
+     * Every board is first searched for {@link HardnessEstimator#PROBE_NODES} nodes, which solves most boards. Once
+     * every board has been probed, the remaining ones continue their searches in the order of their
+     * {@link HardnessEstimator#predictNodes(SolverEngine) predicted} number of nodes, longest first, so that a few hard
+     * boards do not start last and keep the batch running long after the other threads have run out of work.
+     * <p>
+     * The boards are handed to the executor as earlier boards finish, at most {@code queueCapacity} at a time, so a
+     * collection larger than the queue is not rejected by the {@link RejectionPolicy}.
+     *
+     * @param boards the boards to solve
+     * @return a future for every board, in the order of the boards
+     */
+    public List<CompletableFuture<Result>> solveAll(@NonNull Collection<? extends SudokuBoard> boards) {
+        final var event = FlightEvents.isEnabled(BatchChunkEvent.class) ? new BatchChunkEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+
+        final var window = new Window();
+        final var tasks = new ArrayList<Task>(boards.size());
+        final var futures = new ArrayList<CompletableFuture<Result>>(boards.size());
+        for (var board : boards) {
+            final var task = new Task(board, HardnessEstimator.PROBE_NODES, window);
+            tasks.add(task);
+            futures.add(task.future);
+        }
+        tasks.forEach(window::offer);
+
+        final var probes = tasks.stream().map(task -> task.prediction).toArray(CompletableFuture<?>[]::new);
+        CompletableFuture.allOf(probes).thenRun(() -> tasks.stream()
+            .filter(task -> task.prediction.join() >= 0)
+            .sorted(Comparator.comparingLong((Task task) -> task.prediction.join()).reversed())
+            .forEach(task -> {
+                task.nodeLimit = Long.MAX_VALUE;
+                window.offer(task);
+            }));
+
+        if (event != null) {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).whenComplete((result, throwable) -> {
+                if (event.shouldCommit()) {
+                    event.boards = futures.size();
+                    event.failed = (int) futures.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+                    event.solved = event.boards - event.failed;
+                    event.commit();
+                }
+            });
+        }
+        return futures;
+    }
+
+    /**
+     * Shuts down the threads of the solver if it created them. Boards that are still waiting are cancelled, and
+     * running searches are stopped.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            final var cancelled = new ArrayList<Task>();
+            synchronized (active) {
+                closed = true;
+                cancelled.addAll(active);
+            }
+            final var drained = new ArrayList<Task>();
+            for (var runnable : ((ExecutorService) executor).shutdownNow()) {
+                drained.add((Task) runnable);
+            }
+            cancelled.addAll(drained);
+            for (var task : cancelled) {
+                task.future.cancel(false);
+            }
+            // the boards of a batch that were never handed to the executor are rejected
+            drained.forEach(Task::leave);
+        }
+    }
+
+    /**
+     * Hands a task to the executor.
+     *
+     * @return false if the executor rejected the task
+     */
+    private boolean execute(Task task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            task.future.completeExceptionally(e);
+            return false;
+        }
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(RejectionPolicy policy) {
+        switch (policy) {
+            case CALLER_RUNS:
+                // unlike ThreadPoolExecutor.CallerRunsPolicy, which silently drops boards once the solver is closed
+                return (runnable, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("The solver has been closed.");
+                    }
+                    runnable.run();
+                };
+            case DISCARD_OLDEST:
+                return (runnable, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("The solver has been closed.");
+                    }
+                    final var oldest = (Task) executor.getQueue().poll();
+                    if (oldest != null) {
+                        oldest.future.completeExceptionally(
+                            new RejectedExecutionException("The board was replaced by a newer one."));
+                        oldest.leave();
+                    }
+                    executor.execute(runnable);
+                };
+            default:
+                return new ThreadPoolExecutor.AbortPolicy();
+        }
+    }
+
+    /**
+     * Hands the tasks of a single batch to the executor, at most {@link AsyncSolver#batchWindow} at a time. A task
+     * leaves the window every time one of its runs ends, and the next waiting task takes its place.
+     */
+    private class Window {
+        private final ArrayDeque<Task> waiting = new ArrayDeque<>();
+        private int running = 0;
+
+        private void offer(Task task) {
+            synchronized (this) {
+                if (running >= batchWindow) {
+                    waiting.addLast(task);
+                    return;
+                }
+                running++;
+            }
+            if (!execute(task)) {
+                release();
+            }
+        }
+
+        private void release() {
+            while (true) {
+                final Task next;
+                synchronized (this) {
+                    next = waiting.pollFirst();
+                    if (next == null) {
+                        running--;
+                        return;
+                    }
+                }
+                if (execute(next)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * The search for a single board, which may be run first as a probe and later continued.
+     */
+    private class Task extends BoardSearch implements Runnable {
+        /**
+         * Completes with the predicted number of nodes when the search stops at its node limit, or with {@code -1}
+         * when the board is done.
+         */
+        private final CompletableFuture<Long> prediction = new CompletableFuture<>();
+        /**
+         * The number of nodes of the next run, set before the task is handed to the executor.
+         */
+        private long nodeLimit;
+        /**
+         * The window of the batch of the task, or {@code null} for a single board.
+         */
+        private final Window window;
+
+        private Task(SudokuBoard board, long nodeLimit, Window window) {
+            super(board, model, strategy);
+            this.nodeLimit = nodeLimit;
+            this.window = window;
+            future.whenComplete((result, throwable) -> prediction.complete(-1L));
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (future.isDone()) {
+                    return;
+                }
+
+                synchronized (active) {
+                    if (closed) {
+                        future.cancel(false);
+                        return;
+                    }
+                    active.add(this);
+                }
+                try {
+                    if (search(nodeLimit)) {
+                        prediction.complete(HardnessEstimator.predictNodes(engine));
+                    }
+                } finally {
+                    synchronized (active) {
+                        active.remove(this);
+                    }
+                }
+            } finally {
+                leave();
+            }
+        }
+
+        /**
+         * Makes room in the window for the next board of the batch, once a run has ended or will never start.
+         */
+        private void leave() {
+            if (window != null) {
+                window.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Solves large batches of mostly easy puzzles by propagating {@value BatchSolver#LANES} puzzles at once.
+ * <p>
+ * The candidates are bit-sliced: bit {@code l} of the word for a cell and a value is set if the value is still a
+ * candidate of the cell in the puzzle of lane {@code l}. Naked singles (cells with one candidate) and hidden singles
+ * (values with one possible cell in a unit) are then found for all lanes with the same word operations, counting the
+ * candidates with a pair of {@code ones} and {@code twos} words. Most easy puzzles are solved by the singles alone. The
+ * propagation ignores cages, which only makes it weaker, so a lane that it fills is checked for repeated values and
+ * sums of the cages. The lanes that would need to branch are finished by a {@link SolverEngine}, starting from the
+ * cells that the propagation has filled.
+ * <p>
+ * Boards are packed into byte arrays as for the {@link SolutionVerifier}.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class BatchSolver {
+    /**
+     * The number of puzzles propagated together, one for every bit of a {@code long}.
+     */
+    public static final int LANES = Long.SIZE;
+    private static final int CELLS = SIZE * SIZE;
+    /**
+     * Boards solved by one task of {@link BatchSolver#solveAll}.
+     */
+    private static final int CHUNK_BOARDS = 64 * LANES;
+
+    @Getter
+    private final ConstraintModel model;
+
+    /**
+     * Creates a batch solver for classic sudoku.
+     */
+    public BatchSolver() {
+        this(ConstraintModel.CLASSIC);
+    }
+
+    /**
+     * Creates a batch solver for the sudoku variant with the given units and cages.
+     *
+     * @param model the units of the variant
+     */
+    public BatchSolver(@NonNull ConstraintModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Solves every puzzle of a batch, sharing the puzzles between the threads of the common pool. Thread-safe.
+     *
+     * @param puzzles   the packed puzzles
+     * @param solutions receives the packed solutions, one for every puzzle; the boards of unsolvable puzzles are left
+     *                  unchanged
+     * @return {@link SolveStatus#SOLVED} or {@link SolveStatus#UNSOLVABLE} for every puzzle, in the order of the
+     * puzzles
+     * @throws IllegalArgumentException if the arrays do not hold the same number of whole boards or any value is
+     *                                  invalid
+     */
+    public SolveStatus[] solveAll(@NonNull byte[] puzzles, @NonNull byte[] solutions) {
+        if (puzzles.length != solutions.length || puzzles.length % CELLS != 0) {
+            throw new IllegalArgumentException(
+                String.format("Both arrays should hold the same number of boards of %d cells", CELLS));
+        }
+        for (var value : puzzles) {
+            if (value < 0 || value > SIZE) {
+                throw new IllegalArgumentException(
+                    String.format("The number \"%d\" is not valid as the value of a sudoku block", value));
+            }
+        }
+
+        final var statuses = new SolveStatus[puzzles.length / CELLS];
+        final var chunks = (statuses.length + CHUNK_BOARDS - 1) / CHUNK_BOARDS;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            final var lanes = new Lanes();
+            final var end = Math.min(statuses.length, (chunk + 1) * CHUNK_BOARDS);
+            for (int first = chunk * CHUNK_BOARDS; first < end; first += LANES) {
+                lanes.solve(puzzles, solutions, statuses, first, Math.min(LANES, end - first));
+            }
+        });
+        return statuses;
+    }
+
+    /**
+     * The bit-sliced candidates of up to {@value BatchSolver#LANES} puzzles and the engine for the lanes that need a
+     * search.
+     */
+    private class Lanes {
+        /**
+         * The lanes in which value {@code v} is a candidate of cell {@code c} are at index {@code c * SIZE + v - 1}.
+         */
+        private final long[] candidates = new long[CELLS * SIZE];
+        /**
+         * The lanes in which every cell is known to have its single value removed from its peers.
+         */
+        private final long[] eliminated = new long[CELLS];
+        private final int[] cells = new int[CELLS];
+        private final int[] cageTotals = new int[model.getCageCount()];
+        private final int[] cageMasks = new int[model.getCageCount()];
+        private SolverEngine engine = null;
+        /**
+         * The lanes holding puzzles.
+         */
+        private long active;
+        /**
+         * The lanes in which some cell has no candidate left or some unit has no place left for a value.
+         */
+        private long contradicted;
+
+        private void solve(byte[] puzzles, byte[] solutions, SolveStatus[] statuses, int first, int count) {
+            active = count == LANES ? -1L : (1L << count) - 1;
+            contradicted = 0;
+            Arrays.fill(candidates, active);
+            Arrays.fill(eliminated, 0);
+            for (int lane = 0; lane < count; lane++) {
+                final var offset = (first + lane) * CELLS;
+                final var bit = 1L << lane;
+                for (int cell = 0; cell < CELLS; cell++) {
+                    final var value = puzzles[offset + cell];
+                    if (value != 0) {
+                        for (int v = 0; v < SIZE; v++) {
+                            if (v != value - 1) {
+                                candidates[cell * SIZE + v] &= ~bit;
+                            }
+                        }
+                    }
+                }
+            }
+
+            propagate();
+            for (int lane = 0; lane < count; lane++) {
+                final var board = first + lane;
+                final var bit = 1L << lane;
+                if ((contradicted & bit) != 0) {
+                    statuses[board] = SolveStatus.UNSOLVABLE;
+                    continue;
+                }
+
+                var filled = true;
+                for (int cell = 0; cell < CELLS; cell++) {
+                    var value = 0;
+                    for (int v = 0; v < SIZE; v++) {
+                        if ((candidates[cell * SIZE + v] & bit) != 0) {
+                            // a second candidate leaves the cell to the search
+                            value = value == 0 ? v + 1 : -1;
+                        }
+                    }
+                    filled &= value > 0;
+                    cells[cell] = Math.max(value, 0);
+                }
+
+                if (filled) {
+                    statuses[board] = checkCages() ? SolveStatus.SOLVED : SolveStatus.UNSOLVABLE;
+                } else {
+                    if (engine == null) {
+                        engine = new SolverEngine(model);
+                        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+                    }
+                    engine.reset(cells);
+                    statuses[board] = engine.solve();
+                    engine.copyCells(cells);
+                }
+
+                if (statuses[board] == SolveStatus.SOLVED) {
+                    final var offset = board * CELLS;
+                    for (int cell = 0; cell < CELLS; cell++) {
+                        solutions[offset + cell] = (byte) cells[cell];
+                    }
+                }
+            }
+        }
+
+        /**
+         * Removes the candidates ruled out by naked and hidden singles in every lane until none are left, or until
+         * every lane is contradicted.
+         */
+        private void propagate() {
+            var changed = true;
+            while (changed && contradicted != active) {
+                // both passes run every time
+                changed = removeNakedSingles() | removeHiddenSingles();
+            }
+        }
+
+        /**
+         * Removes the value of every cell with a single candidate from its peers.
+         *
+         * @return true if any candidate was removed
+         */
+        private boolean removeNakedSingles() {
+            final var peerStart = model.peerStart;
+            final var peers = model.peers;
+            var changed = false;
+            for (int cell = 0; cell < CELLS; cell++) {
+                final var base = cell * SIZE;
+                var ones = 0L;
+                var twos = 0L;
+                for (int v = 0; v < SIZE; v++) {
+                    final var word = candidates[base + v];
+                    twos |= ones & word;
+                    ones |= word;
+                }
+                contradicted |= active & ~ones;
+
+                // every single is removed from the peers only once
+                final var singles = ones & ~twos & ~eliminated[cell];
+                if (singles == 0) {
+                    continue;
+                }
+                eliminated[cell] |= singles;
+                for (int v = 0; v < SIZE; v++) {
+                    final var lanes = candidates[base + v] & singles;
+                    if (lanes == 0) {
+                        continue;
+                    }
+                    for (int k = peerStart[cell]; k < peerStart[cell + 1]; k++) {
+                        final var index = peers[k] * SIZE + v;
+                        if ((candidates[index] & lanes) != 0) {
+                            candidates[index] &= ~lanes;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * Removes the other candidates of every cell which is the only place for a value in one of its units.
+         *
+         * @return true if any candidate was removed
+         */
+        private boolean removeHiddenSingles() {
+            final var unitCells = model.unitCells;
+            final var unitCount = model.getUnitCount();
+            var changed = false;
+            for (int unit = 0; unit < unitCount; unit++) {
+                for (int v = 0; v < SIZE; v++) {
+                    var ones = 0L;
+                    var twos = 0L;
+                    var placed = 0L;
+                    for (int i = unit * SIZE; i < (unit + 1) * SIZE; i++) {
+                        final var cell = unitCells[i];
+                        final var word = candidates[cell * SIZE + v];
+                        twos |= ones & word;
+                        ones |= word;
+                        placed |= word & eliminated[cell];
+                    }
+                    contradicted |= active & ~ones;
+
+                    // a value that is already the single of a cell has nothing left to remove
+                    final var hidden = ones & ~twos & ~placed;
+                    if (hidden == 0) {
+                        continue;
+                    }
+                    for (int i = unit * SIZE; i < (unit + 1) * SIZE; i++) {
+                        final var base = unitCells[i] * SIZE;
+                        final var lanes = candidates[base + v] & hidden;
+                        if (lanes == 0) {
+                            continue;
+                        }
+                        for (int other = 0; other < SIZE; other++) {
+                            if (other != v && (candidates[base + other] & lanes) != 0) {
+                                candidates[base + other] &= ~lanes;
+                                changed = true;
+                            }
+                        }
+                    }
+                }
+            }
+            return changed;
+        }
+
+        private boolean checkCages() {
+            Arrays.fill(cageTotals, 0);
+            Arrays.fill(cageMasks, 0);
+            for (int cell = 0; cell < CELLS; cell++) {
+                final var cage = model.cageOf[cell];
+                if (cage >= 0) {
+                    // no cage may hold a value twice, even if its sum adds up
+                    final var bit = 1 << cells[cell];
+                    if ((cageMasks[cage] & bit) != 0) {
+                        return false;
+                    }
+                    cageMasks[cage] |= bit;
+                    cageTotals[cage] += cells[cell];
+                }
+            }
+            return Arrays.equals(cageTotals, model.cageSums);
+        }
+    }
+}
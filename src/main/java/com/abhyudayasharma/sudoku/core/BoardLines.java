@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Converts between boards written as a single line and their values in row-major order.
+ * <p>
+ * A line has one character per cell: digits {@code 1} to {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE} are
+ * values, {@code 0} and {@code .} are empty cells. This is the format commonly used by puzzle collections.
+ *
+ * @author Abhyudaya Sharma
+ */
+public final class BoardLines {
+    private static final int CELLS = SIZE * SIZE;
+
+    private BoardLines() {
+    }
+
+    /**
+     * Parses a line into {@code cells}.
+     *
+     * @param line  the line to parse, containing exactly {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE}&nbsp;
+     *              {@code *}&nbsp;{@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE} characters
+     * @param cells the array that receives the values, with {@code 0} for empty cells
+     * @throws IllegalArgumentException if the line has the wrong length or contains an invalid character
+     */
+    public static void parse(CharSequence line, int[] cells) {
+        if (line.length() != CELLS) {
+            throw new IllegalArgumentException(
+                String.format("A sudoku line should have %d characters, found %d", CELLS, line.length()));
+        }
+
+        for (int i = 0; i < CELLS; i++) {
+            final var c = line.charAt(i);
+            if (c == '.' || c == '0') {
+                cells[i] = 0;
+                continue;
+            }
+
+            final var value = Character.digit(c, SIZE + 1);
+            if (value < 1) {
+                throw new IllegalArgumentException(
+                    String.format("The character '%c' is not valid as the value of a sudoku block", c));
+            }
+
+            cells[i] = value;
+        }
+    }
+
+    /**
+     * Appends the line for the given values to {@code builder}, using {@code .} for empty cells.
+     *
+     * @param cells   the values in row-major order
+     * @param builder the builder to append to
+     * @return {@code builder}
+     */
+    public static StringBuilder format(int[] cells, StringBuilder builder) {
+        for (int i = 0; i < CELLS; i++) {
+            builder.append(cells[i] == 0 ? '.' : Character.forDigit(cells[i], SIZE + 1));
+        }
+        return builder;
+    }
+}
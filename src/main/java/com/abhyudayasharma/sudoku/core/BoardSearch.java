@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The search for a single board on a pool of threads, shared by the {@link AsyncSolver} and the {@link SolveScheduler}.
+ * The engine is created by the first run and kept between runs, so a search that stopped at its node limit continues
+ * where it stopped.
+ * <p>
+ * Completing the {@link BoardSearch#future} in any way stops a running search through {@link SolverEngine#cancel()}.
+ */
+class BoardSearch {
+    final CompletableFuture<Result> future = new CompletableFuture<>();
+    private final SudokuBoard board;
+    private final ConstraintModel model;
+    private final SolverStrategy strategy;
+    /**
+     * The engine of the search, or {@code null} before it starts.
+     */
+    volatile SolverEngine engine = null;
+
+    BoardSearch(SudokuBoard board, ConstraintModel model, SolverStrategy strategy) {
+        this.board = board;
+        this.model = model;
+        this.strategy = strategy;
+        future.whenComplete((result, throwable) -> {
+            final var running = engine;
+            if (running != null) {
+                running.cancel();
+            }
+        });
+    }
+
+    /**
+     * Searches for at most the given number of nodes more, and completes the future unless the search stopped at
+     * that limit.
+     *
+     * @param nodes the number of nodes after which the search stops, or {@link Long#MAX_VALUE} for no limit
+     * @return true if the search stopped at its node limit and may be continued by another run
+     */
+    boolean search(long nodes) {
+        if (future.isDone()) {
+            return false;
+        }
+
+        try {
+            var current = engine;
+            if (current == null) {
+                if (!board.isValid(model)) {
+                    throw new IllegalArgumentException("The sudoku board is not valid.");
+                }
+
+                current = new SolverEngine(model);
+                strategy.configure(current);
+                engine = current;
+                current.reset(board);
+                // a cancellation between starting and resetting the engine was undone by the reset
+                if (future.isDone()) {
+                    return false;
+                }
+            }
+
+            final var count = current.getNodeCount();
+            current.setNodeLimit(count + Math.min(nodes, Long.MAX_VALUE - count));
+            final var status = current.solve();
+            if (status == SolveStatus.SOLVED) {
+                future.complete(new Result(current.toBoard(), current.getBacktrackCount(), strategy.getName()));
+            } else if (status == SolveStatus.UNSOLVABLE) {
+                throw new IllegalArgumentException("The entered pattern is not a valid sudoku puzzle.");
+            } else if (!future.isDone()) {
+                if (current.getNodeCount() >= current.getNodeLimit()) {
+                    return true;
+                }
+                future.completeExceptionally(new CancellationException("The solver was stopped."));
+            }
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return false;
+    }
+}
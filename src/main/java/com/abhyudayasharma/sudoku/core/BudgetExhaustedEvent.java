@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a search that stopped before searching its whole tree, because it was cancelled, because
+ * it reached its node limit or because it found as many solutions as it was asked to count.
+ *
+ * @author Abhyudaya Sharma
+ */
+@Name("com.abhyudayasharma.sudoku.BudgetExhausted")
+@Label("Budget Exhausted")
+@Category("Sudoku")
+@Description("A search that stopped early")
+@Enabled(false)
+class BudgetExhaustedEvent extends Event {
+    static final String CANCELLED = "cancelled";
+    static final String NODE_LIMIT = "node limit";
+    static final String BACKTRACK_LIMIT = "backtrack limit";
+    static final String SOLUTION_LIMIT = "solution limit";
+
+    @Label("Reason")
+    String reason;
+    @Label("Nodes")
+    @Description("The number of nodes searched before stopping")
+    long nodes;
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Precomputed digits allowed in the empty cells of a Killer sudoku cage.
+ * <p>
+ * For every number of empty cells, remaining sum and set of digits already used by the cage, the table holds the
+ * union of all sets of unused digits of that size which add up to the remaining sum. Pruning a cage during the search
+ * is then a single lookup instead of an enumeration of the combinations.
+ *
+ * @author Abhyudaya Sharma
+ */
+final class CageTable {
+    /**
+     * The sum of all digits, which is the largest sum of a cage.
+     */
+    static final int MAX_SUM = SIZE * (SIZE + 1) / 2;
+    private static final int MASKS = 1 << SIZE;
+
+    /**
+     * Allowed digits indexed by {@code ((count * (MAX_SUM + 1)) + sum) * MASKS + used}.
+     */
+    private static final char[] ALLOWED = new char[(SIZE + 1) * (MAX_SUM + 1) * MASKS];
+
+    static {
+        for (int digits = 0; digits < MASKS; digits++) {
+            final var count = Integer.bitCount(digits);
+            final var sum = sum(digits);
+
+            // every set of used digits that does not overlap this combination, including the empty set
+            final var free = ~digits & (MASKS - 1);
+            for (int used = free; ; used = (used - 1) & free) {
+                ALLOWED[index(count, sum, used)] |= digits;
+                if (used == 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private CageTable() {
+    }
+
+    /**
+     * Returns the digits that may go into an empty cell of a cage.
+     *
+     * @param count the number of empty cells of the cage, including the one being filled
+     * @param sum   the target sum of the cage minus the digits already placed in it
+     * @param used  the digits already placed in the cage, as a bitmask like the ones of {@link SolverEngine}
+     * @return the allowed digits as a bitmask, {@code 0} if the cage cannot be completed
+     */
+    static int allowed(int count, int sum, int used) {
+        if (sum < 0 || sum > MAX_SUM) {
+            return 0;
+        }
+        return ALLOWED[index(count, sum, used)];
+    }
+
+    /**
+     * Returns the sum of the digits in a bitmask.
+     */
+    static int sum(int digits) {
+        var sum = 0;
+        for (var remaining = digits; remaining != 0; remaining &= remaining - 1) {
+            sum += Integer.numberOfTrailingZeros(remaining) + 1;
+        }
+        return sum;
+    }
+
+    private static int index(int count, int sum, int used) {
+        return (count * (MAX_SUM + 1) + sum) * MASKS + used;
+    }
+}
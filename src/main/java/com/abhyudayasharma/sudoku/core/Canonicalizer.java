@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Brings a puzzle into a canonical form shared by all puzzles that differ from it only by a rotation, a reflection
+ * or a relabelling of the digits.
+ * <p>
+ * Each of the eight rotations and reflections of the board is relabelled so that digits are numbered in the order
+ * in which they first appear, and the smallest of the eight in row-major order is the canonical form. Other
+ * symmetries of sudoku, like swapping rows inside a band, are not taken into account.
+ * <p>
+ * A canonicalizer keeps its scratch space between calls, so it does not allocate, but it is not thread-safe.
+ *
+ * @author Abhyudaya Sharma
+ */
+public final class Canonicalizer {
+    private static final int CELLS = SIZE * SIZE;
+    /**
+     * For each symmetry, the cell of the original board that ends up at every cell.
+     */
+    private static final int[][] SYMMETRIES = new int[8][CELLS];
+
+    static {
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                final var last = SIZE - 1;
+                final var cell = row * SIZE + col;
+                SYMMETRIES[0][cell] = row * SIZE + col;
+                SYMMETRIES[1][cell] = col * SIZE + last - row;
+                SYMMETRIES[2][cell] = (last - row) * SIZE + last - col;
+                SYMMETRIES[3][cell] = (last - col) * SIZE + row;
+                SYMMETRIES[4][cell] = row * SIZE + last - col;
+                SYMMETRIES[5][cell] = (last - row) * SIZE + col;
+                SYMMETRIES[6][cell] = col * SIZE + row;
+                SYMMETRIES[7][cell] = (last - col) * SIZE + last - row;
+            }
+        }
+    }
+
+    private final int[] candidate = new int[CELLS];
+    private final int[] labels = new int[SIZE + 1];
+
+    /**
+     * Writes the canonical form of a puzzle.
+     *
+     * @param cells  the values of the puzzle in row-major order, {@code 0} for empty cells
+     * @param result receives the canonical form; must not be the same array as {@code cells}
+     */
+    public void canonicalize(int[] cells, int[] result) {
+        for (int s = 0; s < SYMMETRIES.length; s++) {
+            final var symmetry = SYMMETRIES[s];
+            for (int i = 1; i <= SIZE; i++) {
+                labels[i] = 0;
+            }
+
+            // compare with the smallest form so far while relabelling, and give up as soon as this one is larger
+            var order = s == 0 ? -1 : 0;
+            var next = 1;
+            for (int cell = 0; cell < CELLS && order <= 0; cell++) {
+                final var value = cells[symmetry[cell]];
+                if (value != 0 && labels[value] == 0) {
+                    labels[value] = next++;
+                }
+                candidate[cell] = labels[value];
+                if (order == 0) {
+                    order = Integer.compare(candidate[cell], result[cell]);
+                }
+            }
+
+            if (order < 0) {
+                System.arraycopy(candidate, 0, result, 0, CELLS);
+            }
+        }
+    }
+}
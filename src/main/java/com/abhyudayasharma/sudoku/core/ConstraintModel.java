@@ -0,0 +1,480 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * The units of a sudoku variant: groups of {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE} cells that must all
+ * hold different values.
+ * <p>
+ * Classic sudoku has rows, columns and boxes. Variants add units (the two diagonals of Sudoku-X, the four extra
+ * windows of Hyper sudoku) or replace the boxes with irregular regions (Jigsaw sudoku). When a model is built, its
+ * units are compiled into flat tables of the units of every cell and the peers of every cell, so the solver does the
+ * same table lookups for every variant.
+ * <p>
+ * Killer sudoku cages are kept apart from the units: a cage has up to
+ * {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE} cells which must hold different digits adding up to its sum.
+ *
+ * @author Abhyudaya Sharma
+ */
+public final class ConstraintModel {
+    static final int CELLS = SIZE * SIZE;
+    private static final int SQRT = (int) Math.rint(Math.sqrt(SIZE));
+
+    public enum UnitType {
+        ROW,
+        COLUMN,
+        BOX,
+        DIAGONAL,
+        WINDOW,
+        REGION
+    }
+
+    /**
+     * Rows, columns and boxes.
+     */
+    public static final ConstraintModel CLASSIC = builder("classic").rows().columns().boxes().build();
+    /**
+     * Classic sudoku where the two main diagonals must hold different values too.
+     */
+    public static final ConstraintModel DIAGONAL = builder("diagonal").rows().columns().boxes().diagonals().build();
+    /**
+     * Classic sudoku with four additional boxes, also known as Windoku.
+     */
+    public static final ConstraintModel HYPER = builder("hyper").rows().columns().boxes().windows().build();
+
+    @Getter
+    private final String name;
+    private final UnitType[] unitTypes;
+    /**
+     * The cells of unit {@code u} are at indices {@code u * SIZE} to {@code (u + 1) * SIZE - 1}.
+     */
+    final int[] unitCells;
+    /**
+     * The units of cell {@code c} are at indices {@code cellUnitStart[c]} to {@code cellUnitStart[c + 1] - 1} of
+     * {@link ConstraintModel#cellUnits}.
+     */
+    final int[] cellUnitStart;
+    final int[] cellUnits;
+    /**
+     * The peers of cell {@code c} are at indices {@code peerStart[c]} to {@code peerStart[c + 1] - 1} of
+     * {@link ConstraintModel#peers}.
+     */
+    final int[] peerStart;
+    final int[] peers;
+    /**
+     * The cage of every cell, {@code -1} for cells outside any cage.
+     */
+    final int[] cageOf;
+    final int[] cageSums;
+    final int[] cageSizes;
+    /**
+     * Zobrist keys of the search state, indexed by {@code cell * SIZE + value - 1}.
+     * <p>
+     * The key of a value in a cell combines a random key for the cell being filled with a random key for the value
+     * being used by each unit and cage of the cell. Two boards then have the same hash when the same cells are filled
+     * and every unit and cage uses the same values, which is exactly when the empty cells have the same completions,
+     * even if the filled cells hold different values.
+     */
+    final long[] stateKeys;
+
+    private ConstraintModel(String name, List<UnitType> types, List<int[]> units, List<int[]> cages,
+                            List<Integer> sums) {
+        this.name = name;
+        unitTypes = types.toArray(UnitType[]::new);
+        unitCells = new int[units.size() * SIZE];
+        for (int u = 0; u < units.size(); u++) {
+            System.arraycopy(units.get(u), 0, unitCells, u * SIZE, SIZE);
+        }
+
+        var unitCounts = new int[CELLS];
+        for (var cell : unitCells) {
+            unitCounts[cell]++;
+        }
+        cellUnitStart = new int[CELLS + 1];
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (unitCounts[cell] == 0) {
+                throw new IllegalArgumentException(String.format("Cell %d does not belong to any unit", cell));
+            }
+            cellUnitStart[cell + 1] = cellUnitStart[cell] + unitCounts[cell];
+        }
+
+        cellUnits = new int[cellUnitStart[CELLS]];
+        var filled = Arrays.copyOf(cellUnitStart, CELLS);
+        for (int i = 0; i < unitCells.length; i++) {
+            cellUnits[filled[unitCells[i]]++] = i / SIZE;
+        }
+
+        var peerLists = new ArrayList<int[]>(CELLS);
+        peerStart = new int[CELLS + 1];
+        var isPeer = new boolean[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            Arrays.fill(isPeer, false);
+            for (int k = cellUnitStart[cell]; k < cellUnitStart[cell + 1]; k++) {
+                for (int i = 0; i < SIZE; i++) {
+                    isPeer[unitCells[cellUnits[k] * SIZE + i]] = true;
+                }
+            }
+            isPeer[cell] = false;
+
+            var cellPeers = new int[CELLS];
+            var count = 0;
+            for (int other = 0; other < CELLS; other++) {
+                if (isPeer[other]) {
+                    cellPeers[count++] = other;
+                }
+            }
+            peerLists.add(Arrays.copyOf(cellPeers, count));
+            peerStart[cell + 1] = peerStart[cell] + count;
+        }
+
+        peers = new int[peerStart[CELLS]];
+        for (int cell = 0; cell < CELLS; cell++) {
+            System.arraycopy(peerLists.get(cell), 0, peers, peerStart[cell], peerLists.get(cell).length);
+        }
+
+        cageOf = new int[CELLS];
+        Arrays.fill(cageOf, -1);
+        cageSums = sums.stream().mapToInt(Integer::intValue).toArray();
+        cageSizes = cages.stream().mapToInt(cage -> cage.length).toArray();
+        for (int c = 0; c < cages.size(); c++) {
+            for (var cell : cages.get(c)) {
+                if (cageOf[cell] >= 0) {
+                    throw new IllegalArgumentException(String.format("Cell %d belongs to two cages", cell));
+                }
+                cageOf[cell] = c;
+            }
+        }
+
+        // the same seed for every model, so the hashes of a model do not change between runs
+        final var random = new SplittableRandom(0x5D0C0);
+        final var filledKeys = random.longs(CELLS).toArray();
+        final var unitKeys = random.longs((unitTypes.length + cageSums.length) * SIZE).toArray();
+        stateKeys = new long[CELLS * SIZE];
+        for (int cell = 0; cell < CELLS; cell++) {
+            for (int value = 1; value <= SIZE; value++) {
+                var key = filledKeys[cell];
+                for (int k = cellUnitStart[cell]; k < cellUnitStart[cell + 1]; k++) {
+                    key ^= unitKeys[cellUnits[k] * SIZE + value - 1];
+                }
+                if (cageOf[cell] >= 0) {
+                    key ^= unitKeys[(unitTypes.length + cageOf[cell]) * SIZE + value - 1];
+                }
+                stateKeys[cell * SIZE + value - 1] = key;
+            }
+        }
+    }
+
+    /**
+     * Creates a Jigsaw sudoku model: rows, columns and irregular regions instead of boxes.
+     *
+     * @param regions the region of every cell in row-major order, from {@code 0} to
+     *                {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE}&nbsp;{@code - 1}
+     * @return a new model
+     * @throws IllegalArgumentException if some region does not have exactly
+     *                                  {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE} cells
+     */
+    public static ConstraintModel jigsaw(int[] regions) {
+        return builder("jigsaw").rows().columns().regions(regions).build();
+    }
+
+    /**
+     * Starts building a model without any units.
+     *
+     * @param name the name of the variant
+     * @return a new builder
+     */
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public int getUnitCount() {
+        return unitTypes.length;
+    }
+
+    public UnitType getUnitType(int unit) {
+        return unitTypes[unit];
+    }
+
+    public int getCageCount() {
+        return cageSums.length;
+    }
+
+    public int getCageSum(int cage) {
+        return cageSums[cage];
+    }
+
+    /**
+     * Returns the Killer sudoku cage of a cell.
+     *
+     * @param cell the cell in row-major order
+     * @return the index of the cage, or {@code -1} if the cell is not in a cage
+     */
+    public int getCage(int cell) {
+        return cageOf[cell];
+    }
+
+    /**
+     * Returns a cell of a unit.
+     *
+     * @param unit  the index of the unit
+     * @param index the index of the cell in the unit, from {@code 0} to
+     *              {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE}&nbsp;{@code - 1}
+     * @return the cell in row-major order
+     */
+    public int getUnitCell(int unit, int index) {
+        return unitCells[unit * SIZE + index];
+    }
+
+    /**
+     * Checks whether the values are consistent with the model, i.e. no unit or cage holds a value twice and every
+     * cage can still reach its sum. Does not allocate, unless the model has cages.
+     *
+     * @param cells the values in row-major order, {@code 0} for empty cells
+     * @return true if the values do not break any unit or cage
+     */
+    public boolean isConsistent(int[] cells) {
+        for (int u = 0; u < unitTypes.length; u++) {
+            var mask = 0;
+            for (int i = u * SIZE; i < (u + 1) * SIZE; i++) {
+                final var value = cells[unitCells[i]];
+                if (value == 0) {
+                    continue;
+                }
+
+                final var bit = 1 << (value - 1);
+                if ((mask & bit) != 0) {
+                    return false;
+                }
+                mask |= bit;
+            }
+        }
+
+        if (cageSums.length == 0) {
+            return true;
+        }
+
+        final var used = new int[cageSums.length];
+        final var sums = cageSums.clone();
+        final var empty = cageSizes.clone();
+        for (int cell = 0; cell < CELLS; cell++) {
+            final var cage = cageOf[cell];
+            if (cage < 0 || cells[cell] == 0) {
+                continue;
+            }
+
+            final var bit = 1 << (cells[cell] - 1);
+            if ((used[cage] & bit) != 0) {
+                return false;
+            }
+            used[cage] |= bit;
+            sums[cage] -= cells[cell];
+            empty[cage]--;
+        }
+
+        for (int cage = 0; cage < sums.length; cage++) {
+            if (empty[cage] == 0 ? sums[cage] != 0 : CageTable.allowed(empty[cage], sums[cage], used[cage]) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Collects the units of a {@link ConstraintModel}.
+     */
+    public static final class Builder {
+        private final String name;
+        private final List<UnitType> types = new ArrayList<>();
+        private final List<int[]> units = new ArrayList<>();
+        private final List<int[]> cages = new ArrayList<>();
+        private final List<Integer> sums = new ArrayList<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder rows() {
+            for (int row = 0; row < SIZE; row++) {
+                var cells = new int[SIZE];
+                for (int i = 0; i < SIZE; i++) {
+                    cells[i] = row * SIZE + i;
+                }
+                unit(UnitType.ROW, cells);
+            }
+            return this;
+        }
+
+        public Builder columns() {
+            for (int col = 0; col < SIZE; col++) {
+                var cells = new int[SIZE];
+                for (int i = 0; i < SIZE; i++) {
+                    cells[i] = i * SIZE + col;
+                }
+                unit(UnitType.COLUMN, cells);
+            }
+            return this;
+        }
+
+        public Builder boxes() {
+            for (int box = 0; box < SIZE; box++) {
+                unit(UnitType.BOX, square(box / SQRT * SQRT, box % SQRT * SQRT));
+            }
+            return this;
+        }
+
+        /**
+         * Adds the main diagonal and the anti-diagonal.
+         *
+         * @return this builder
+         */
+        public Builder diagonals() {
+            var main = new int[SIZE];
+            var anti = new int[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                main[i] = i * SIZE + i;
+                anti[i] = i * SIZE + SIZE - 1 - i;
+            }
+            unit(UnitType.DIAGONAL, main);
+            unit(UnitType.DIAGONAL, anti);
+            return this;
+        }
+
+        /**
+         * Adds the boxes that sit one cell away from the borders of the regular boxes, like the shaded windows of
+         * Hyper sudoku.
+         *
+         * @return this builder
+         */
+        public Builder windows() {
+            for (int i = 0; i < SQRT - 1; i++) {
+                for (int j = 0; j < SQRT - 1; j++) {
+                    unit(UnitType.WINDOW, square(i * (SQRT + 1) + 1, j * (SQRT + 1) + 1));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Adds irregular regions.
+         *
+         * @param regions the region of every cell in row-major order, from {@code 0} to
+         *                {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE}&nbsp;{@code - 1}
+         * @return this builder
+         * @throws IllegalArgumentException if some region does not have exactly
+         *                                  {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE} cells
+         */
+        public Builder regions(int[] regions) {
+            if (regions.length != CELLS) {
+                throw new IllegalArgumentException(String.format("The regions should cover %d cells", CELLS));
+            }
+
+            var cells = new int[SIZE][SIZE];
+            var counts = new int[SIZE];
+            for (int cell = 0; cell < CELLS; cell++) {
+                var region = regions[cell];
+                if (region < 0 || region >= SIZE || counts[region] == SIZE) {
+                    throw new IllegalArgumentException(
+                        String.format("Every region should have %d cells, found too many in region %d", SIZE, region));
+                }
+                cells[region][counts[region]++] = cell;
+            }
+
+            for (var region : cells) {
+                unit(UnitType.REGION, region);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a unit.
+         *
+         * @param type  the type of the unit
+         * @param cells {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE} different cells in row-major order
+         * @return this builder
+         * @throws IllegalArgumentException if the cells are not valid
+         */
+        public Builder unit(UnitType type, int[] cells) {
+            if (cells.length != SIZE || Arrays.stream(cells).distinct().count() != SIZE
+                || Arrays.stream(cells).anyMatch(cell -> cell < 0 || cell >= CELLS)) {
+                throw new IllegalArgumentException(String.format("A unit should have %d different cells", SIZE));
+            }
+
+            types.add(type);
+            units.add(cells.clone());
+            return this;
+        }
+
+        /**
+         * Adds a Killer sudoku cage.
+         *
+         * @param sum   the sum of the digits in the cage
+         * @param cells up to {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE} different cells in row-major order,
+         *              which must not be in any other cage
+         * @return this builder
+         * @throws IllegalArgumentException if no set of different digits fills the cells with the given sum
+         */
+        public Builder cage(int sum, int... cells) {
+            if (cells.length == 0 || cells.length > SIZE || Arrays.stream(cells).distinct().count() != cells.length
+                || Arrays.stream(cells).anyMatch(cell -> cell < 0 || cell >= CELLS)) {
+                throw new IllegalArgumentException(String.format("A cage should have 1 to %d different cells", SIZE));
+            }
+
+            if (CageTable.allowed(cells.length, sum, 0) == 0) {
+                throw new IllegalArgumentException(
+                    String.format("No %d different digits add up to %d", cells.length, sum));
+            }
+
+            cages.add(cells.clone());
+            sums.add(sum);
+            return this;
+        }
+
+        public ConstraintModel build() {
+            return new ConstraintModel(name, types, units, cages, sums);
+        }
+
+        private static int[] square(int top, int left) {
+            var cells = new int[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                cells[i] = (top + i / SQRT) * SIZE + left + i % SQRT;
+            }
+            return cells;
+        }
+    }
+}
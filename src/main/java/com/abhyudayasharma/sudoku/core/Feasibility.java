@@ -0,0 +1,65 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+/**
+ * Whether a board that is being entered can be solved, as found by the {@link FeasibilityChecker}.
+ *
+ * @author Abhyudaya Sharma
+ */
+public enum Feasibility {
+    /**
+     * The board has exactly one solution.
+     */
+    UNIQUE("has a unique solution"),
+    /**
+     * The board has more than one solution.
+     */
+    MULTIPLE_SOLUTIONS("has more than one solution"),
+    /**
+     * A solution was found, but the search ran out of time before finding out whether there are others.
+     */
+    SOLVABLE("has a solution"),
+    /**
+     * The board has no solution.
+     */
+    UNSOLVABLE("has no solution"),
+    /**
+     * The search ran out of time before finding any solution.
+     */
+    UNKNOWN("is too hard to check while editing");
+
+    private final String description;
+
+    Feasibility(String description) {
+        this.description = description;
+    }
+
+    /**
+     * @return explanation that can be shown after "The puzzle"
+     */
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Checks on a background thread whether a board that is being edited can still be solved.
+ * <p>
+ * The user interface should call {@link FeasibilityChecker#check(SudokuBoard)} after every edit. The check for the
+ * previous board is cancelled if it has not finished yet, so that only the latest board is ever searched. A check
+ * counts up to two solutions with the fewest-remaining-values order, which fills cells with a single candidate first
+ * and so propagates the clues before it branches. The search is bounded by {@link FeasibilityChecker#NODE_LIMIT}
+ * nodes, which takes a few milliseconds, so boards that are too hard to decide that quickly are reported as
+ * {@link Feasibility#UNKNOWN} or {@link Feasibility#SOLVABLE} instead of keeping the thread busy.
+ *
+ * @author Abhyudaya Sharma
+ */
+@Slf4j
+public class FeasibilityChecker implements AutoCloseable {
+    /**
+     * The number of search nodes after which a check gives up.
+     */
+    public static final long NODE_LIMIT = 20_000;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("feasibility"));
+    private final SolverEngine engine;
+    /**
+     * The check of the board that was changed last.
+     */
+    private CompletableFuture<Feasibility> current = null;
+
+    /**
+     * Creates a checker for classic sudoku.
+     */
+    public FeasibilityChecker() {
+        this(ConstraintModel.CLASSIC);
+    }
+
+    /**
+     * Creates a checker for the sudoku variant with the given units.
+     *
+     * @param model the units of the variant
+     */
+    public FeasibilityChecker(ConstraintModel model) {
+        engine = new SolverEngine(model);
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        engine.setNodeLimit(NODE_LIMIT);
+    }
+
+    /**
+     * Starts checking an edited board and cancels the check of the previously edited board.
+     *
+     * @param board the board after the edit
+     * @return a future that completes with the result of the check, or is cancelled if another board is checked
+     * before this one has been
+     */
+    public synchronized CompletableFuture<Feasibility> check(SudokuBoard board) {
+        if (current != null && !current.isDone()) {
+            current.cancel(false);
+            engine.cancel();
+        }
+
+        final var future = new CompletableFuture<Feasibility>();
+        current = future;
+        executor.execute(() -> {
+            synchronized (this) {
+                if (future.isDone()) {
+                    return; // cancelled before it started
+                }
+                // a cancellation of the previous check must not stop this one
+                engine.reset(board);
+            }
+
+            try {
+                final var count = engine.countSolutions(2);
+                if (engine.getStatus() != SolveStatus.CANCELLED) {
+                    future.complete(count == 0 ? Feasibility.UNSOLVABLE
+                        : count == 1 ? Feasibility.UNIQUE : Feasibility.MULTIPLE_SOLUTIONS);
+                } else if (!future.isDone()) {
+                    // the node limit was reached
+                    future.complete(count == 0 ? Feasibility.UNKNOWN : Feasibility.SOLVABLE);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Unable to check the board.", e);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Stops the background thread. A running check is cancelled.
+     */
+    @Override
+    public synchronized void close() {
+        if (current != null) {
+            current.cancel(false);
+        }
+        engine.cancel();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import lombok.Value;
+
+/**
+ * A cheap prediction of how hard a puzzle is to search, made by a {@link HardnessEstimator}.
+ *
+ * @author Abhyudaya Sharma
+ */
+@Value
+public class Hardness {
+    int clues;
+    /**
+     * The number of cells that are still empty after filling every naked and hidden single.
+     */
+    int emptyAfterPropagation;
+    /**
+     * The base-2 logarithm of the product of the candidate counts of the cells left empty by propagation, i.e. the
+     * size of the search space that propagation leaves.
+     */
+    double searchBits;
+    /**
+     * The predicted number of nodes of a search with {@link CellOrder#MIN_REMAINING_VALUES}.
+     */
+    long predictedNodes;
+    /**
+     * Whether the probe finished the search, so that {@link Hardness#predictedNodes} is the actual number of nodes.
+     */
+    boolean exact;
+}
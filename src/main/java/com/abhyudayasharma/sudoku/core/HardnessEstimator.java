@@ -0,0 +1,231 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Arrays;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Predicts how many nodes a search of a puzzle will take, so that batches can start the hardest puzzles first and
+ * give them to stronger solvers.
+ * <p>
+ * The estimate first fills every naked single (a cell with one candidate) and hidden single (a value with one possible
+ * cell in a unit) until none are left, and measures the search space that remains. These statistics alone rank
+ * puzzles poorly, since the engine does not look for hidden singles, so the prediction comes from a probe: a search
+ * with {@link CellOrder#MIN_REMAINING_VALUES} limited to {@link HardnessEstimator#PROBE_NODES} nodes. Most puzzles
+ * are solved within the probe, which makes their prediction exact. For the others, the nodes of the probe are
+ * divided by the share of the search tree they explored. On generated puzzles the prediction ranks puzzles in almost
+ * the same order as their actual searches, and for puzzles that need more than a thousand nodes it is typically
+ * within a factor of four.
+ * <p>
+ * A search stopped by its {@link SolverEngine#getNodeLimit() node limit} continues where it stopped, so solvers that
+ * probe their own engine with {@link HardnessEstimator#predictNodes(SolverEngine)} lose no work.
+ * <p>
+ * An estimator is not thread-safe.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class HardnessEstimator {
+    /**
+     * The node limit of the probe, a few tens of microseconds of search.
+     */
+    public static final long PROBE_NODES = 256;
+    private static final int CELLS = SIZE * SIZE;
+
+    @Getter
+    private final ConstraintModel model;
+    private final int[] cells = new int[CELLS];
+    private final int[] unitMasks;
+    private final SolverEngine engine;
+
+    /**
+     * Creates an estimator for classic sudoku.
+     */
+    public HardnessEstimator() {
+        this(ConstraintModel.CLASSIC);
+    }
+
+    /**
+     * Creates an estimator for the sudoku variant with the given units.
+     *
+     * @param model the units of the variant
+     */
+    public HardnessEstimator(@NonNull ConstraintModel model) {
+        this.model = model;
+        unitMasks = new int[model.getUnitCount()];
+        engine = new SolverEngine(model);
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        engine.setNodeLimit(PROBE_NODES);
+    }
+
+    /**
+     * Predicts the total number of nodes of a search from an engine that has searched part of it.
+     *
+     * @param stopped an engine whose search has finished or was stopped by its node limit
+     * @return the number of nodes searched if the search has finished, otherwise an extrapolation
+     */
+    public static long predictNodes(@NonNull SolverEngine stopped) {
+        final var nodes = stopped.getNodeCount();
+        if (stopped.getStatus() != SolveStatus.CANCELLED) {
+            return nodes;
+        }
+
+        final var fraction = stopped.exploredFraction();
+        return fraction * Long.MAX_VALUE <= nodes ? Long.MAX_VALUE : Math.max(nodes, Math.round(nodes / fraction));
+    }
+
+    /**
+     * Estimates the hardness of a board.
+     *
+     * @param board the board
+     * @return the estimate
+     */
+    public Hardness estimate(@NonNull SudokuBoard board) {
+        board.copyTo(cells);
+        engine.reset(board);
+        return estimate();
+    }
+
+    /**
+     * Estimates the hardness of a puzzle given by its values in row-major order.
+     *
+     * @param values the values of the puzzle with {@code 0} for empty cells
+     * @return the estimate
+     * @throws IllegalArgumentException if the number of values is wrong or any value is invalid
+     */
+    public Hardness estimate(int[] values) {
+        if (values.length != CELLS) {
+            throw new IllegalArgumentException(String.format("The board should have %d cells", CELLS));
+        }
+        for (var value : values) {
+            if (value < 0 || value > SIZE) {
+                throw new IllegalArgumentException(
+                    String.format("The number \"%d\" is not valid as the value of a sudoku block", value));
+            }
+        }
+
+        System.arraycopy(values, 0, cells, 0, CELLS);
+        engine.reset(values);
+        return estimate();
+    }
+
+    private Hardness estimate() {
+        engine.solve();
+        final var predicted = predictNodes(engine);
+        final var exact = engine.getStatus() != SolveStatus.CANCELLED;
+
+        Arrays.fill(unitMasks, 0);
+        var clues = 0;
+        var consistent = true;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (cells[cell] != 0) {
+                clues++;
+                consistent &= place(cell, cells[cell]);
+            }
+        }
+
+        var changed = consistent;
+        while (changed) {
+            changed = false;
+
+            for (int cell = 0; cell < CELLS && consistent; cell++) {
+                if (cells[cell] != 0) {
+                    continue;
+                }
+
+                final var candidates = candidates(cell);
+                if (candidates == 0) {
+                    consistent = false;
+                } else if ((candidates & (candidates - 1)) == 0) {
+                    consistent = place(cell, Integer.numberOfTrailingZeros(candidates) + 1);
+                    changed = true;
+                }
+            }
+
+            for (int unit = 0; unit < unitMasks.length && consistent; unit++) {
+                for (var missing = ~unitMasks[unit] & SolverEngine.ALL_VALUES; missing != 0 && consistent;
+                     missing &= missing - 1) {
+                    final var bit = missing & -missing;
+                    var count = 0;
+                    var only = -1;
+                    for (int i = unit * SIZE; i < (unit + 1) * SIZE; i++) {
+                        final var cell = model.unitCells[i];
+                        if (cells[cell] == 0 && (candidates(cell) & bit) != 0) {
+                            count++;
+                            only = cell;
+                        }
+                    }
+
+                    if (count == 0) {
+                        consistent = false;
+                    } else if (count == 1) {
+                        consistent = place(only, Integer.numberOfTrailingZeros(bit) + 1);
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        var empty = 0;
+        var bits = 0.0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (cells[cell] == 0) {
+                empty++;
+                // a contradiction leaves cells without candidates, which add nothing
+                bits += Math.log(Math.max(1, Integer.bitCount(candidates(cell)))) / Math.log(2);
+            }
+        }
+        return new Hardness(clues, empty, bits, predicted, exact);
+    }
+
+    /**
+     * Fills a cell.
+     *
+     * @return false if a unit of the cell already holds the value
+     */
+    private boolean place(int cell, int value) {
+        final var bit = 1 << (value - 1);
+        var consistent = true;
+        for (int k = model.cellUnitStart[cell]; k < model.cellUnitStart[cell + 1]; k++) {
+            final var unit = model.cellUnits[k];
+            consistent &= (unitMasks[unit] & bit) == 0;
+            unitMasks[unit] |= bit;
+        }
+        cells[cell] = value;
+        return consistent;
+    }
+
+    private int candidates(int cell) {
+        var used = 0;
+        for (int k = model.cellUnitStart[cell]; k < model.cellUnitStart[cell + 1]; k++) {
+            used |= unitMasks[model.cellUnits[k]];
+        }
+        return ~used & SolverEngine.ALL_VALUES;
+    }
+}
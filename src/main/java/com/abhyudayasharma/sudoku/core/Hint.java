@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A value that can be filled into an empty cell, and why.
+ *
+ * @author Abhyudaya Sharma
+ */
+@Value
+@SuppressWarnings("WeakerAccess")
+public class Hint {
+    final int row;
+    final int col;
+    final int value;
+    @NonNull
+    final Reason reason;
+
+    public enum Reason {
+        /**
+         * The value is the only one that is not used by the row, column or box of the cell.
+         */
+        NAKED_SINGLE("it is the only value left for the cell"),
+        /**
+         * The cell is the only one in its row that can hold the value.
+         */
+        HIDDEN_SINGLE_IN_ROW("no other cell in the row can hold it"),
+        /**
+         * The cell is the only one in its column that can hold the value.
+         */
+        HIDDEN_SINGLE_IN_COLUMN("no other cell in the column can hold it"),
+        /**
+         * The cell is the only one in its box that can hold the value.
+         */
+        HIDDEN_SINGLE_IN_BOX("no other cell in the box can hold it"),
+        /**
+         * No single can be found, so the value is taken from the solution of the board.
+         */
+        FROM_SOLUTION("it is part of the solution");
+
+        /**
+         * Explanation of the reason that can be shown to a player.
+         */
+        @Getter
+        private final String description;
+
+        Reason(String description) {
+            this.description = description;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Finds the next step that a player can deduce on a partially filled board.
+ * <p>
+ * Naked singles are preferred over hidden singles. If neither exists, the value of the most constrained empty cell
+ * is taken from the solution of the board. No hint is given for a board without a solution, because any deduction
+ * on it would be misleading.
+ *
+ * @author Abhyudaya Sharma
+ */
+class HintFinder {
+    private static final int CELLS = SIZE * SIZE;
+    private static final int SQRT = (int) Math.rint(Math.sqrt(SIZE));
+
+    private final SolverEngine engine = new SolverEngine();
+    private final int[] candidates = new int[CELLS];
+    private final int[] solution = new int[CELLS];
+
+    HintFinder() {
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+    }
+
+    /**
+     * Finds a hint for the board.
+     *
+     * @param cells the values of the board in row-major order
+     * @return the hint, or {@link Optional#empty()} if the board is full or has no solution
+     * @throws CancellationException if {@link HintFinder#cancel()} was called
+     */
+    Optional<Hint> find(int[] cells) {
+        engine.reset(cells);
+        var status = engine.solve();
+        if (status == SolveStatus.CANCELLED) {
+            throw new CancellationException("The hint was cancelled.");
+        } else if (status == SolveStatus.UNSOLVABLE) {
+            return Optional.empty();
+        }
+        engine.copyCells(solution);
+
+        var best = -1;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (cells[cell] != 0) {
+                candidates[cell] = 0;
+                continue;
+            }
+
+            var mask = SolverEngine.ALL_VALUES;
+            for (int i = 0; i < SIZE; i++) {
+                mask &= ~bit(cells[cell / SIZE * SIZE + i]) & ~bit(cells[i * SIZE + cell % SIZE])
+                    & ~bit(cells[boxCell(cell, i)]);
+            }
+            candidates[cell] = mask;
+
+            if (Integer.bitCount(mask) == 1) {
+                return Optional.of(hint(cell, Hint.Reason.NAKED_SINGLE));
+            }
+            if (best < 0 || Integer.bitCount(mask) < Integer.bitCount(candidates[best])) {
+                best = cell;
+            }
+        }
+
+        if (best < 0) {
+            return Optional.empty();
+        }
+
+        for (int unit = 0; unit < SIZE; unit++) {
+            for (int value = 1; value <= SIZE; value++) {
+                var rowCell = single(value, unit * SIZE, 1, -1);
+                if (rowCell >= 0) {
+                    return Optional.of(hint(rowCell, Hint.Reason.HIDDEN_SINGLE_IN_ROW));
+                }
+
+                var colCell = single(value, unit, SIZE, -1);
+                if (colCell >= 0) {
+                    return Optional.of(hint(colCell, Hint.Reason.HIDDEN_SINGLE_IN_COLUMN));
+                }
+
+                var boxCell = single(value, unit, 0, unit);
+                if (boxCell >= 0) {
+                    return Optional.of(hint(boxCell, Hint.Reason.HIDDEN_SINGLE_IN_BOX));
+                }
+            }
+        }
+
+        return Optional.of(hint(best, Hint.Reason.FROM_SOLUTION));
+    }
+
+    /**
+     * Stops a running {@link HintFinder#find(int[])} from any thread.
+     */
+    void cancel() {
+        engine.cancel();
+    }
+
+    /**
+     * Returns the only cell of a unit that can hold {@code value}, or {@code -1}. The unit is either the box
+     * {@code box}, or, if {@code box} is negative, {@code SIZE} cells starting at {@code start} and
+     * {@code step} apart.
+     */
+    private int single(int value, int start, int step, int box) {
+        var found = -1;
+        for (int i = 0; i < SIZE; i++) {
+            var cell = box < 0 ? start + i * step : boxCell(box / SQRT * SQRT * SIZE + box % SQRT * SQRT, i);
+            if ((candidates[cell] & bit(value)) != 0) {
+                if (found >= 0) {
+                    return -1;
+                }
+                found = cell;
+            }
+        }
+        return found;
+    }
+
+    private Hint hint(int cell, Hint.Reason reason) {
+        return new Hint(cell / SIZE, cell % SIZE, solution[cell], reason);
+    }
+
+    /**
+     * Returns the {@code i}-th cell of the box containing {@code cell}.
+     */
+    private static int boxCell(int cell, int i) {
+        var top = cell / SIZE / SQRT * SQRT;
+        var left = cell % SIZE / SQRT * SQRT;
+        return (top + i / SQRT) * SIZE + left + i % SQRT;
+    }
+
+    private static int bit(int value) {
+        return value == 0 ? 0 : 1 << (value - 1);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Computes {@link Hint hints} on a background thread and caches them per board.
+ * <p>
+ * The user interface should call {@link HintService#boardChanged(SudokuBoard)} after every edit. The hint for the
+ * new board is then computed speculatively, and the computation for the previous board is cancelled if it has not
+ * finished yet. Once a hint is known, the hint for the board with that hint filled in is computed as well, so that
+ * asking for hints one after another never waits for the solver.
+ *
+ * @author Abhyudaya Sharma
+ */
+@Slf4j
+public class HintService implements AutoCloseable {
+    private static final int MAX_CACHED_BOARDS = 256;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("hint"));
+    /**
+     * Hints by the board they were computed for, in the format of {@link BoardLines}, least recently used first.
+     */
+    private final Map<String, Task> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Task> eldest) {
+            return size() > MAX_CACHED_BOARDS;
+        }
+    };
+    /**
+     * The computation for the board that was changed last.
+     */
+    private Task current = null;
+
+    /**
+     * Returns the hint for the board. If it has already been computed, the returned future is complete.
+     *
+     * @param board the board that needs a hint
+     * @return a future that completes with the hint, or with {@link Optional#empty()} if the board is full or has no
+     * solution
+     */
+    public synchronized CompletableFuture<Optional<Hint>> hint(SudokuBoard board) {
+        var cells = new int[SIZE * SIZE];
+        board.copyTo(cells);
+        return taskFor(cells, true).future;
+    }
+
+    /**
+     * Starts computing the hint for an edited board and cancels the computation for the previously edited board.
+     *
+     * @param board the board after the edit
+     */
+    public synchronized void boardChanged(SudokuBoard board) {
+        var cells = new int[SIZE * SIZE];
+        board.copyTo(cells);
+        var task = taskFor(cells, true);
+        if (current != null && current != task && !current.future.isDone()) {
+            current.cancel();
+        }
+        current = task;
+    }
+
+    /**
+     * Stops the background thread. Hints that have not been computed yet are cancelled.
+     */
+    @Override
+    public synchronized void close() {
+        new ArrayList<>(cache.values()).forEach(Task::cancel);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the cached computation for the board or starts a new one.
+     *
+     * @param lookAhead whether the hint for the board after this hint should be computed too
+     */
+    private Task taskFor(int[] cells, boolean lookAhead) {
+        var key = BoardLines.format(cells, new StringBuilder(SIZE * SIZE)).toString();
+        var task = cache.get(key);
+        final var hit = task != null && !task.future.isCancelled();
+        if (FlightEvents.isEnabled(CacheEvent.class)) {
+            final var event = new CacheEvent();
+            if (event.shouldCommit()) {
+                event.cache = CacheEvent.HINTS;
+                event.hits = hit ? 1 : 0;
+                event.misses = hit ? 0 : 1;
+                event.commit();
+            }
+        }
+        if (hit) {
+            return task;
+        }
+
+        final var newTask = new Task(key);
+        cache.put(key, newTask);
+        executor.execute(() -> {
+            if (newTask.future.isDone()) {
+                return; // cancelled before it started
+            }
+
+            try {
+                var hint = newTask.finder.find(cells);
+                newTask.future.complete(hint);
+                if (lookAhead && hint.isPresent()) {
+                    var next = cells.clone();
+                    next[hint.get().getRow() * SIZE + hint.get().getCol()] = hint.get().getValue();
+                    synchronized (this) {
+                        if (!executor.isShutdown()) {
+                            taskFor(next, false);
+                        }
+                    }
+                }
+            } catch (CancellationException e) {
+                newTask.future.cancel(false);
+            } catch (RuntimeException e) {
+                log.warn("Unable to compute a hint.", e);
+                newTask.future.completeExceptionally(e);
+            }
+        });
+        return newTask;
+    }
+
+    private class Task {
+        private final String key;
+        private final HintFinder finder = new HintFinder();
+        private final CompletableFuture<Optional<Hint>> future = new CompletableFuture<>();
+
+        private Task(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Stops the computation and forgets it, so that asking for the same board again starts over.
+         */
+        private void cancel() {
+            finder.cancel();
+            future.cancel(false);
+            cache.remove(key, this);
+        }
+    }
+}
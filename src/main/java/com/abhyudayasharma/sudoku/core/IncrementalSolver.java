@@ -0,0 +1,272 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Arrays;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Solves a board again after a few of its cells have been changed, starting from the previous solution.
+ * <p>
+ * The solver keeps the last board it was given and the solution it found. When a new board is solved, the cells that
+ * differ from the last board are the delta. If the previous solution still agrees with every given of the new board,
+ * which is always the case when a given was removed or set to its value in the solution, it is returned without a
+ * search. Otherwise the solver repairs the solution locally: the changed cells and their peers are searched again
+ * while every other cell keeps its value from the previous solution. If that fails within
+ * {@link IncrementalSolver#REPAIR_NODE_LIMIT} nodes, the region grows by the peers of its cells, and after
+ * {@link IncrementalSolver#MAX_RADIUS} such steps the board is solved from scratch. A repaired solution keeps every
+ * given, so it is always a solution of the new board, though not necessarily the one a full search would find.
+ * <p>
+ * A solver is not thread-safe, apart from {@link IncrementalSolver#cancel()}.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class IncrementalSolver {
+    /**
+     * The nodes a local repair may search before the region grows.
+     */
+    public static final long REPAIR_NODE_LIMIT = 10_000;
+    /**
+     * The number of times the region grows by the peers of its cells before the board is solved from scratch.
+     */
+    public static final int MAX_RADIUS = 2;
+    private static final int CELLS = SIZE * SIZE;
+
+    /**
+     * How the last solution was found.
+     */
+    public enum Repair {
+        /**
+         * The previous solution agreed with every given.
+         */
+        REUSED,
+        /**
+         * Only the cells around the changed cells were searched again.
+         */
+        LOCAL,
+        /**
+         * The board was solved from scratch.
+         */
+        FULL
+    }
+
+    @Getter
+    private final ConstraintModel model;
+    private final SolverEngine engine;
+    private final int[] puzzle = new int[CELLS];
+    private final int[] solution = new int[CELLS];
+    private final int[] board = new int[CELLS];
+    private final boolean[] changed = new boolean[CELLS];
+    private final boolean[] region = new boolean[CELLS];
+    /**
+     * Whether {@link IncrementalSolver#solution} is a solution of {@link IncrementalSolver#puzzle}.
+     */
+    private boolean solved = false;
+    private volatile boolean cancelled = false;
+
+    /**
+     * How the last solve found its solution, or {@code null} if it found none.
+     */
+    @Getter
+    private Repair lastRepair = null;
+
+    /**
+     * Creates a solver for classic sudoku.
+     */
+    public IncrementalSolver() {
+        this(ConstraintModel.CLASSIC);
+    }
+
+    /**
+     * Creates a solver for the sudoku variant with the given units and cages.
+     *
+     * @param model the units of the variant
+     */
+    public IncrementalSolver(@NonNull ConstraintModel model) {
+        this.model = model;
+        engine = new SolverEngine(model);
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+    }
+
+    /**
+     * Solves a board, reusing the solution of the last board as far as possible.
+     *
+     * @param newBoard the board
+     * @return {@link SolveStatus#SOLVED} if a solution was found, {@link SolveStatus#UNSOLVABLE} if the board has no
+     * solution or {@link SolveStatus#CANCELLED} if {@link IncrementalSolver#cancel()} was called
+     */
+    public SolveStatus solve(@NonNull SudokuBoard newBoard) {
+        newBoard.copyTo(board);
+        return solveBoard();
+    }
+
+    /**
+     * Solves the board given by its values in row-major order, reusing the solution of the last board as far as
+     * possible.
+     *
+     * @param values the values of the board with {@code 0} for empty cells
+     * @return {@link SolveStatus#SOLVED} if a solution was found, {@link SolveStatus#UNSOLVABLE} if the board has no
+     * solution or {@link SolveStatus#CANCELLED} if {@link IncrementalSolver#cancel()} was called
+     * @throws IllegalArgumentException if the number of values is wrong or any value is invalid
+     */
+    public SolveStatus solve(int[] values) {
+        if (values.length != CELLS) {
+            throw new IllegalArgumentException(String.format("The board should have %d cells", CELLS));
+        }
+        for (var value : values) {
+            checkValue(value);
+        }
+
+        System.arraycopy(values, 0, board, 0, CELLS);
+        return solveBoard();
+    }
+
+    /**
+     * Changes a single cell of the last board and solves it again.
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @param value  the new value of the cell, {@code 0} to empty it
+     * @return {@link SolveStatus#SOLVED} if a solution was found, {@link SolveStatus#UNSOLVABLE} if the board has no
+     * solution or {@link SolveStatus#CANCELLED} if {@link IncrementalSolver#cancel()} was called
+     * @throws IllegalArgumentException if the cell does not exist or the value is invalid
+     */
+    public SolveStatus edit(int row, int column, int value) {
+        if (row < 0 || row >= SIZE || column < 0 || column >= SIZE) {
+            throw new IllegalArgumentException(String.format("There is no cell at row %d, column %d", row, column));
+        }
+        checkValue(value);
+
+        System.arraycopy(puzzle, 0, board, 0, CELLS);
+        board[row * SIZE + column] = value;
+        return solveBoard();
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0 || value > SIZE) {
+            throw new IllegalArgumentException(
+                String.format("The number \"%d\" is not valid as the value of a sudoku block", value));
+        }
+    }
+
+    /**
+     * Solves {@link IncrementalSolver#board}, which becomes the new {@link IncrementalSolver#puzzle}.
+     */
+    private SolveStatus solveBoard() {
+        cancelled = false;
+        var agrees = solved;
+        for (int cell = 0; cell < CELLS; cell++) {
+            changed[cell] = board[cell] != puzzle[cell];
+            agrees &= board[cell] == 0 || board[cell] == solution[cell];
+        }
+        System.arraycopy(board, 0, puzzle, 0, CELLS);
+
+        if (agrees) {
+            lastRepair = Repair.REUSED;
+            return SolveStatus.SOLVED;
+        }
+
+        if (solved) {
+            System.arraycopy(changed, 0, region, 0, CELLS);
+            for (int radius = 1; radius <= MAX_RADIUS; radius++) {
+                growRegion();
+                for (int cell = 0; cell < CELLS; cell++) {
+                    board[cell] = region[cell] ? puzzle[cell] : solution[cell];
+                }
+
+                engine.setNodeLimit(REPAIR_NODE_LIMIT);
+                engine.reset(board);
+                final var status = cancelled ? SolveStatus.CANCELLED : engine.solve();
+                if (status == SolveStatus.SOLVED) {
+                    return finish(status, Repair.LOCAL);
+                } else if (cancelled) {
+                    return finish(SolveStatus.CANCELLED, null);
+                }
+            }
+        }
+
+        engine.setNodeLimit(Long.MAX_VALUE);
+        engine.reset(puzzle);
+        return finish(cancelled ? SolveStatus.CANCELLED : engine.solve(), Repair.FULL);
+    }
+
+    /**
+     * Adds the peers of every cell of {@link IncrementalSolver#region} to it.
+     */
+    private void growRegion() {
+        final var grown = region.clone();
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (region[cell]) {
+                for (int k = model.peerStart[cell]; k < model.peerStart[cell + 1]; k++) {
+                    grown[model.peers[k]] = true;
+                }
+            }
+        }
+        System.arraycopy(grown, 0, region, 0, CELLS);
+    }
+
+    private SolveStatus finish(SolveStatus status, Repair repair) {
+        solved = status == SolveStatus.SOLVED;
+        lastRepair = solved ? repair : null;
+        if (solved) {
+            engine.copyCells(solution);
+        } else {
+            Arrays.fill(solution, 0);
+        }
+        return status;
+    }
+
+    /**
+     * Stops a running solve, which then returns {@link SolveStatus#CANCELLED}. The request is cleared by the next
+     * solve.
+     */
+    public void cancel() {
+        cancelled = true;
+        engine.cancel();
+    }
+
+    /**
+     * Copies the solution of the last board into {@code values} in row-major order.
+     *
+     * @param values an array of at least {@link SudokuBoard#SIZE}&nbsp;{@code *}&nbsp;{@link SudokuBoard#SIZE}
+     *               values, which are all {@code 0} if the last solve found no solution
+     */
+    public void copyCells(int[] values) {
+        System.arraycopy(solution, 0, values, 0, CELLS);
+    }
+
+    /**
+     * Returns the solution of the last board as a new {@link SudokuBoard}.
+     *
+     * @return the solution, or an empty board if the last solve found no solution
+     */
+    public SudokuBoard toBoard() {
+        return SudokuBoard.of(solution);
+    }
+}
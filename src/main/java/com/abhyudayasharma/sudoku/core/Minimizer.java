@@ -0,0 +1,193 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Removes clues from a puzzle with a unique solution until every remaining clue is needed to keep the solution unique.
+ * <p>
+ * Clues are tried once each, in row-major order or in a random order. A clue is needed exactly when the puzzle
+ * without it has a solution with another value in its cell: any other solution would also solve the puzzle with the
+ * clue. So instead of counting the solutions of the smaller puzzle, which means searching its whole tree even though
+ * one solution is already known, the minimizer runs a single search for a solution of the smaller puzzle with the
+ * known value {@link SolverEngine#exclude(int, int) excluded} from the cell. Since removing clues only adds
+ * solutions, a clue that is needed once stays needed, and one pass leaves a minimal puzzle.
+ * <p>
+ * Different orders lead to minimal puzzles of different sizes, so {@link Minimizer#minimizeParallel} tries several
+ * random orders at the same time and keeps the smallest result.
+ * <p>
+ * A minimizer reuses its {@link SolverEngine} and scratch space for every check and every puzzle, so the checks do
+ * not allocate, but it is not thread-safe.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class Minimizer {
+    private static final int CELLS = SIZE * SIZE;
+
+    @Getter
+    private final ConstraintModel model;
+    private final SolverEngine engine;
+    private final int[] solution = new int[CELLS];
+    private final int[] order = new int[CELLS];
+
+    /**
+     * Creates a minimizer for classic sudoku.
+     */
+    public Minimizer() {
+        this(ConstraintModel.CLASSIC);
+    }
+
+    /**
+     * Creates a minimizer for the sudoku variant with the given units.
+     *
+     * @param model the units of the variant
+     */
+    public Minimizer(@NonNull ConstraintModel model) {
+        this.model = model;
+        engine = new SolverEngine(model);
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+    }
+
+    /**
+     * Removes clues from a puzzle in row-major order.
+     *
+     * @param board a puzzle with a unique solution
+     * @return a minimal puzzle with the same solution
+     * @throws IllegalArgumentException if the puzzle does not have a unique solution
+     */
+    public SudokuBoard minimize(SudokuBoard board) {
+        return minimize(board, 0);
+    }
+
+    /**
+     * Removes clues from a puzzle in an order chosen by a seed.
+     *
+     * @param board a puzzle with a unique solution
+     * @param seed  {@code 0} for row-major order; any other seed shuffles the clues
+     * @return a minimal puzzle with the same solution
+     * @throws IllegalArgumentException if the puzzle does not have a unique solution
+     */
+    public SudokuBoard minimize(SudokuBoard board, long seed) {
+        final var cells = new int[CELLS];
+        board.copyTo(cells);
+        minimize(cells, seed);
+        return SudokuBoard.of(cells);
+    }
+
+    /**
+     * Removes clues from a puzzle in place.
+     *
+     * @param cells the values of a puzzle with a unique solution in row-major order, {@code 0} for empty cells.
+     *              Receives the minimal puzzle.
+     * @param seed  {@code 0} for row-major order; any other seed shuffles the clues
+     * @return the number of clues of the minimal puzzle
+     * @throws IllegalArgumentException if the puzzle does not have a unique solution or the values are invalid
+     */
+    public int minimize(int[] cells, long seed) {
+        engine.reset(cells);
+        if (engine.countSolutions(2) != 1) {
+            throw new IllegalArgumentException("The puzzle does not have a unique solution.");
+        }
+        engine.reset(cells);
+        engine.solve();
+        engine.copyCells(solution);
+
+        for (int cell = 0; cell < CELLS; cell++) {
+            order[cell] = cell;
+        }
+        if (seed != 0) {
+            final var random = new SplittableRandom(seed);
+            for (int i = CELLS - 1; i > 0; i--) {
+                final var j = random.nextInt(i + 1);
+                final var swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+        }
+
+        var clues = 0;
+        for (var cell : order) {
+            if (cells[cell] == 0) {
+                continue;
+            }
+
+            cells[cell] = 0;
+            engine.reset(cells);
+            engine.exclude(cell, solution[cell]);
+            if (engine.solve() == SolveStatus.SOLVED) {
+                cells[cell] = solution[cell];
+                clues++;
+            }
+        }
+        return clues;
+    }
+
+    /**
+     * Minimizes a puzzle with several random orders on the common pool and returns the smallest result. The result
+     * only depends on the puzzle and the number of orders.
+     *
+     * @param board  a puzzle with a unique solution
+     * @param orders the number of orders to try
+     * @return the minimal puzzle with the fewest clues
+     * @throws IllegalArgumentException if the puzzle does not have a unique solution or no order is to be tried
+     */
+    public SudokuBoard minimizeParallel(SudokuBoard board, int orders) {
+        if (orders < 1) {
+            throw new IllegalArgumentException("At least one order should be tried");
+        }
+
+        final var cells = new int[CELLS];
+        board.copyTo(cells);
+        // fail before starting the other threads
+        engine.reset(cells);
+        if (engine.countSolutions(2) != 1) {
+            throw new IllegalArgumentException("The puzzle does not have a unique solution.");
+        }
+
+        return LongStream.rangeClosed(1, orders).parallel().mapToObj(seed -> {
+            final var minimal = cells.clone();
+            new Minimizer(model).minimize(minimal, seed);
+            return minimal;
+        }).min(Comparator.comparingInt(Minimizer::clueCount)).map(SudokuBoard::of).orElseThrow();
+    }
+
+    private static int clueCount(int[] cells) {
+        var count = 0;
+        for (var value : cells) {
+            if (value != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
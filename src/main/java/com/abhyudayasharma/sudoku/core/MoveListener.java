@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+/**
+ * Receives the steps taken by a {@link SolverEngine} as primitive values so that listening does not require
+ * allocating a move per step.
+ */
+public interface MoveListener {
+    /**
+     * Called after the value of a cell has changed.
+     *
+     * @param row      the row index of the cell
+     * @param col      the column index of the cell
+     * @param oldValue the previous value of the cell, {@code 0} if it was empty
+     * @param newValue the new value of the cell, {@code 0} if it has been cleared
+     */
+    void onAssignment(int row, int col, int oldValue, int newValue);
+
+    /**
+     * Called when the engine has run out of values for a cell and returns to an earlier cell.
+     *
+     * @param fromRow the row index of the cell that has no values left
+     * @param fromCol the column index of the cell that has no values left
+     * @param toRow   the row index of the cell whose next value is tried
+     * @param toCol   the column index of the cell whose next value is tried
+     */
+    default void onBacktrack(int fromRow, int fromCol, int toRow, int toCol) {
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Solves a board with several {@link SolverStrategy strategies} at the same time and returns the result of the first
+ * one to finish.
+ * <p>
+ * Different puzzles are hard for different strategies, so racing a few of them cuts the time spent on the puzzles
+ * that are unlucky for any single one. As soon as one strategy has either solved the board or proved that it has no
+ * solution, the other strategies are cancelled through {@link SolverEngine#cancel()}. The winning strategy is named
+ * in the {@link Result}.
+ *
+ * @author Abhyudaya Sharma
+ */
+@Slf4j
+public class PortfolioSolver implements AutoCloseable {
+    /**
+     * Row-major and fewest-remaining-values orders and two randomised variants of the latter.
+     */
+    public static final List<SolverStrategy> DEFAULT_STRATEGIES = List.of(SolverStrategy.ROW_MAJOR,
+        SolverStrategy.MIN_REMAINING_VALUES, SolverStrategy.randomized(1), SolverStrategy.randomized(2));
+
+    @Getter
+    private final ConstraintModel model;
+    @Getter
+    private final List<SolverStrategy> strategies;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    /**
+     * Creates a portfolio that runs each strategy on a thread of its own.
+     *
+     * @param strategies the strategies to race
+     */
+    public PortfolioSolver(List<SolverStrategy> strategies) {
+        this(ConstraintModel.CLASSIC, strategies);
+    }
+
+    /**
+     * Creates a portfolio for a sudoku variant that runs each strategy on a thread of its own.
+     *
+     * @param model      the units of the variant
+     * @param strategies the strategies to race
+     */
+    public PortfolioSolver(ConstraintModel model, List<SolverStrategy> strategies) {
+        this(model, strategies, Executors.newFixedThreadPool(strategies.size(), new DaemonThreadFactory("portfolio")),
+            true);
+    }
+
+    /**
+     * Creates a portfolio that runs the strategies on the given executor, which is not shut down by
+     * {@link PortfolioSolver#close()}.
+     *
+     * @param strategies the strategies to race
+     * @param executor   the executor that runs the strategies. It should be able to run all of them at once.
+     */
+    public PortfolioSolver(List<SolverStrategy> strategies, ExecutorService executor) {
+        this(ConstraintModel.CLASSIC, strategies, executor, false);
+    }
+
+    private PortfolioSolver(@NonNull ConstraintModel model, List<SolverStrategy> strategies, ExecutorService executor,
+                            boolean ownsExecutor) {
+        if (strategies.isEmpty()) {
+            throw new IllegalArgumentException("A portfolio needs at least one strategy");
+        }
+        this.model = model;
+        this.strategies = List.copyOf(strategies);
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Solves the board with the first strategy to finish.
+     *
+     * @param board the board to solve
+     * @return the solution found by the winning strategy
+     * @throws IllegalArgumentException if the board is not valid or has no solution
+     * @throws InterruptedException     if the calling thread is interrupted while waiting. All strategies are
+     *                                  cancelled.
+     */
+    public Result solve(SudokuBoard board) throws InterruptedException {
+        if (!board.isValid(model)) {
+            throw new IllegalArgumentException("The sudoku board is not valid.");
+        }
+
+        final var engines = new ArrayList<SolverEngine>(strategies.size());
+        final var completion = new ExecutorCompletionService<SolverEngine>(executor);
+        try {
+            for (var strategy : strategies) {
+                final var engine = new SolverEngine(model);
+                strategy.configure(engine);
+                engine.reset(board);
+                engines.add(engine);
+                completion.submit(() -> {
+                    engine.solve();
+                    return engine;
+                });
+            }
+
+            RuntimeException failure = null;
+            for (int i = 0; i < engines.size(); i++) {
+                final SolverEngine engine;
+                try {
+                    engine = completion.take().get();
+                } catch (ExecutionException e) {
+                    log.warn("A strategy of the portfolio failed.", e.getCause());
+                    failure = new IllegalStateException("A strategy of the portfolio failed.", e.getCause());
+                    continue;
+                }
+
+                final var strategy = strategies.get(engines.indexOf(engine));
+                switch (engine.getStatus()) {
+                    case SOLVED:
+                        return new Result(engine.toBoard(), engine.getBacktrackCount(), strategy.getName());
+                    case UNSOLVABLE:
+                        throw new IllegalArgumentException("The entered pattern is not a valid sudoku puzzle.");
+                    default:
+                        // cancelled from outside the portfolio; another strategy may still finish
+                }
+            }
+
+            throw failure != null ? failure : new IllegalStateException("Every strategy was cancelled.");
+        } finally {
+            engines.forEach(SolverEngine::cancel);
+        }
+    }
+
+    /**
+     * Shuts down the threads of the portfolio if it created them.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+}
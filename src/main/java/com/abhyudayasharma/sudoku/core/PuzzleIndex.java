@@ -0,0 +1,299 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * A set of puzzles kept outside of the Java heap, for finding duplicates in corpora of hundreds of millions of
+ * puzzles without filling the heap or causing long garbage collection pauses.
+ * <p>
+ * Every puzzle is hashed to 128 bits, which are stored in an open-addressing table with linear probing. The table is
+ * made of direct {@link ByteBuffer}s, or of buffers mapped from temporary files when a spill directory is given, and
+ * doubles in size when it becomes three quarters full. Two different puzzles are only mistaken for each other if all
+ * 128 bits collide, which for a billion puzzles happens with a probability of about {@code 10^-21}.
+ * <p>
+ * In approximate mode only a 32-bit fingerprint is stored per puzzle, which takes a quarter of the memory. A new
+ * puzzle is then wrongly reported as a duplicate with a probability of roughly one in a billion, and since the
+ * fingerprints cannot be moved to a larger table, the number of puzzles must be known in advance.
+ * <p>
+ * An index is not thread-safe.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class PuzzleIndex implements AutoCloseable {
+    private static final int CELLS = SIZE * SIZE;
+    private static final int SEGMENT_BYTES = 1 << 30;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final boolean approximate;
+    private final int slotBytes;
+    /**
+     * Where the tables are mapped from, or {@code null} for direct buffers.
+     */
+    private final Path spillDirectory;
+    private Table table;
+    @Getter
+    private long size = 0;
+
+    private PuzzleIndex(long expectedSize, boolean approximate, Path spillDirectory) throws IOException {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("The expected size should not be negative");
+        }
+
+        this.approximate = approximate;
+        this.slotBytes = approximate ? Integer.BYTES : 2 * Long.BYTES;
+        this.spillDirectory = spillDirectory;
+        // a table is at most three quarters full
+        var capacity = Long.highestOneBit(Math.max(MIN_CAPACITY, expectedSize + expectedSize / 3));
+        if (capacity < expectedSize + expectedSize / 3) {
+            capacity <<= 1;
+        }
+        table = new Table(capacity);
+    }
+
+    /**
+     * Creates an index in direct buffers that grows as needed.
+     *
+     * @param expectedSize the expected number of puzzles, to avoid growing the table
+     * @return an empty index
+     * @throws IOException never for direct buffers
+     */
+    public static PuzzleIndex create(long expectedSize) throws IOException {
+        return new PuzzleIndex(expectedSize, false, null);
+    }
+
+    /**
+     * Creates an index that stores only 32-bit fingerprints in direct buffers.
+     *
+     * @param maxSize the largest number of puzzles the index can hold
+     * @return an empty index
+     * @throws IOException never for direct buffers
+     */
+    public static PuzzleIndex approximate(long maxSize) throws IOException {
+        return new PuzzleIndex(maxSize, true, null);
+    }
+
+    /**
+     * Creates an index in buffers mapped from temporary files, which lets the operating system page parts of the
+     * index out to the disk when it does not fit in memory. The files are deleted when they are no longer needed.
+     *
+     * @param expectedSize   the expected number of puzzles, or the largest number for an approximate index
+     * @param approximate    whether to store only 32-bit fingerprints
+     * @param spillDirectory the directory for the temporary files
+     * @return an empty index
+     * @throws IOException if the files cannot be created or mapped
+     */
+    public static PuzzleIndex mapped(long expectedSize, boolean approximate, Path spillDirectory) throws IOException {
+        return new PuzzleIndex(expectedSize, approximate, spillDirectory);
+    }
+
+    /**
+     * Adds a puzzle to the index.
+     *
+     * @param cells the values of the puzzle in row-major order, {@code 0} for empty cells
+     * @return true if the puzzle was not in the index yet
+     * @throws IOException           if the table of a mapped index cannot be grown
+     * @throws IllegalStateException if an approximate index is full
+     */
+    public boolean add(int[] cells) throws IOException {
+        final var high = hash(cells, 0x9E3779B97F4A7C15L);
+        final var low = hash(cells, 0xC2B2AE3D27D4EB4FL) | 1; // never 0, which marks an empty slot
+        if (!table.insert(high, low)) {
+            return false;
+        }
+
+        size++;
+        if (size > table.capacity - (table.capacity >>> 2)) {
+            if (approximate) {
+                if (size > table.capacity - (table.capacity >>> 4)) {
+                    throw new IllegalStateException("The approximate index is full");
+                }
+            } else {
+                grow();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a puzzle is in the index.
+     *
+     * @param cells the values of the puzzle in row-major order, {@code 0} for empty cells
+     * @return true if the puzzle, or in approximate mode possibly another puzzle with the same fingerprint, has been
+     * added before
+     */
+    public boolean contains(int[] cells) {
+        final var high = hash(cells, 0x9E3779B97F4A7C15L);
+        final var low = hash(cells, 0xC2B2AE3D27D4EB4FL) | 1;
+        return table.find(high, low) >= 0;
+    }
+
+    /**
+     * Returns the number of bytes used by the table outside of the heap.
+     *
+     * @return the size of the table in bytes
+     */
+    public long getTableBytes() {
+        return table.capacity * slotBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        table.close();
+    }
+
+    private void grow() throws IOException {
+        final var old = table;
+        table = new Table(old.capacity << 1);
+        for (long slot = 0; slot < old.capacity; slot++) {
+            final var low = old.low(slot);
+            if (low != 0) {
+                table.insert(old.high(slot), low);
+            }
+        }
+        old.close();
+    }
+
+    /**
+     * Hashes the values of a puzzle, four bits per cell, mixing every 64 bits with the finalizer of MurmurHash3.
+     */
+    private static long hash(int[] cells, long seed) {
+        var hash = seed;
+        for (int i = 0; i < CELLS; i += Long.SIZE / 4) {
+            var word = 0L;
+            for (int j = i; j < Math.min(i + Long.SIZE / 4, CELLS); j++) {
+                word = word << 4 | cells[j];
+            }
+            hash ^= word;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            hash *= 0xC4CEB9FE1A85EC53L;
+            hash ^= hash >>> 33;
+        }
+        return hash;
+    }
+
+    /**
+     * An open-addressing table split into buffers of at most {@link PuzzleIndex#SEGMENT_BYTES} bytes.
+     * <p>
+     * In exact mode a slot holds the two halves of the hash; the high half also chooses the slot, which lets the
+     * table be rebuilt at a larger size. In approximate mode a slot only holds the low 32 bits of the low half.
+     */
+    private class Table implements AutoCloseable {
+        private final long capacity;
+        private final int slotsPerSegment;
+        private final ByteBuffer[] segments;
+        private final FileChannel[] channels;
+
+        Table(long capacity) throws IOException {
+            this.capacity = capacity;
+            final var bytes = capacity * slotBytes;
+            final var segmentBytes = (int) Math.min(bytes, SEGMENT_BYTES);
+            slotsPerSegment = segmentBytes / slotBytes;
+            segments = new ByteBuffer[(int) (bytes / segmentBytes)];
+            channels = new FileChannel[spillDirectory == null ? 0 : segments.length];
+
+            for (int i = 0; i < segments.length; i++) {
+                if (spillDirectory == null) {
+                    segments[i] = ByteBuffer.allocateDirect(segmentBytes);
+                } else {
+                    final var file = Files.createTempFile(spillDirectory, "puzzle-index", ".bin");
+                    channels[i] = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+                    segments[i] = channels[i].map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+                }
+            }
+        }
+
+        /**
+         * Inserts a hash unless it is already present.
+         *
+         * @return true if the hash was inserted
+         */
+        boolean insert(long high, long low) {
+            final var slot = find(high, low);
+            if (slot >= 0) {
+                return false;
+            }
+
+            final var empty = -slot - 1;
+            final var segment = segments[(int) (empty / slotsPerSegment)];
+            final var offset = (int) (empty % slotsPerSegment) * slotBytes;
+            if (approximate) {
+                segment.putInt(offset, (int) low);
+            } else {
+                segment.putLong(offset, high);
+                segment.putLong(offset + Long.BYTES, low);
+            }
+            return true;
+        }
+
+        /**
+         * Looks up a hash.
+         *
+         * @return the slot holding the hash, or {@code -(slot + 1)} for the empty slot where it belongs
+         */
+        long find(long high, long low) {
+            final var mask = capacity - 1;
+            for (var slot = high & mask; ; slot = (slot + 1) & mask) {
+                final var stored = low(slot);
+                if (stored == 0) {
+                    return -slot - 1;
+                }
+                if (approximate ? stored == (int) low : stored == low && high(slot) == high) {
+                    return slot;
+                }
+            }
+        }
+
+        long high(long slot) {
+            return segments[(int) (slot / slotsPerSegment)].getLong((int) (slot % slotsPerSegment) * slotBytes);
+        }
+
+        long low(long slot) {
+            final var segment = segments[(int) (slot / slotsPerSegment)];
+            final var offset = (int) (slot % slotsPerSegment) * slotBytes;
+            return approximate ? segment.getInt(offset) : segment.getLong(offset + Long.BYTES);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // mapped buffers stay valid until they are garbage collected, but their files can be deleted now
+            for (var channel : channels) {
+                channel.close();
+            }
+        }
+    }
+}
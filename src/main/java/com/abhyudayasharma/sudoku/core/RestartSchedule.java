@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+/**
+ * How many backtracks each run of a {@link RestartingSolver} may take before the search starts over, in multiples of
+ * the backtracks of the first run.
+ */
+public enum RestartSchedule {
+    /**
+     * The sequence {@code 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, ...} of Luby, Sinclair and Zuckerman, which is within a
+     * logarithmic factor of the best fixed limit for any distribution of solve times.
+     */
+    LUBY,
+    /**
+     * A limit that grows by half with every run, which reaches long runs sooner but gives the short ones fewer
+     * tries.
+     */
+    GEOMETRIC;
+
+    /**
+     * Returns the multiple of the first limit for a run.
+     *
+     * @param run the number of the run, starting at {@code 0}
+     * @return the factor, at least {@code 1}
+     */
+    public long factor(int run) {
+        if (run < 0) {
+            throw new IllegalArgumentException("The run should not be negative");
+        }
+
+        if (this == GEOMETRIC) {
+            return (long) Math.min(Math.pow(1.5, run), Long.MAX_VALUE);
+        }
+
+        // find the smallest complete subsequence 2^k - 1 long that holds the run, then the run within its halves
+        var size = 1L;
+        var exponent = 0;
+        while (size < run + 1) {
+            size = 2 * size + 1;
+            exponent++;
+        }
+        var index = (long) run;
+        while (size - 1 != index) {
+            size = (size - 1) >> 1;
+            exponent--;
+            index %= size;
+        }
+        return 1L << exponent;
+    }
+}
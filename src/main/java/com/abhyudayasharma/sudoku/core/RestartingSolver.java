@@ -0,0 +1,203 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.SplittableRandom;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Solves boards with randomised searches that start over after a growing number of backtracks.
+ * <p>
+ * The time a backtracking search takes is heavy-tailed: an early choice of the wrong value for a cell can leave a
+ * subtree that takes orders of magnitude longer than the rest of the search. Each run breaks ties between cells and
+ * orders values at random, through the {@link SolverEngine#setSeed(long) seed} of a {@link SolverEngine} searching
+ * in {@link CellOrder#MIN_REMAINING_VALUES} order, and is stopped by its
+ * {@link SolverEngine#setBacktrackLimit(long) backtrack limit} taken from a {@link RestartSchedule}. Since the limits
+ * keep growing, some run eventually finishes, which also proves that a board without a solution has none.
+ * <p>
+ * The seeds of the runs are drawn from the seed of the solver, so every solve of a board with the same seed takes
+ * the same runs and finds the same solution. A solver is not thread-safe, apart from {@link RestartingSolver#cancel()}.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class RestartingSolver {
+    /**
+     * The default backtracks of the first run, which gave the fewest nodes on average on the test corpus.
+     */
+    public static final long DEFAULT_FIRST_LIMIT = 128;
+    private static final int CELLS = SIZE * SIZE;
+
+    @Getter
+    private final ConstraintModel model;
+    @Getter
+    private final RestartSchedule schedule;
+    @Getter
+    private final long firstLimit;
+    @Getter
+    private final long seed;
+    private final SolverEngine engine;
+    private final int[] puzzle = new int[CELLS];
+
+    /**
+     * The number of times the last solve started over.
+     */
+    @Getter
+    private int restartCount = 0;
+    /**
+     * The nodes of every run of the last solve.
+     */
+    @Getter
+    private long nodeCount = 0;
+    /**
+     * The backtracks of every run of the last solve.
+     */
+    @Getter
+    private long backtrackCount = 0;
+    private volatile boolean cancelled = false;
+
+    /**
+     * Creates a solver for classic sudoku with the {@link RestartSchedule#GEOMETRIC} schedule, which had the shorter
+     * tail of the two on the test corpus.
+     *
+     * @param seed the seed of the runs
+     */
+    public RestartingSolver(long seed) {
+        this(ConstraintModel.CLASSIC, RestartSchedule.GEOMETRIC, DEFAULT_FIRST_LIMIT, seed);
+    }
+
+    /**
+     * Creates a solver for a sudoku variant.
+     *
+     * @param model      the units of the variant
+     * @param schedule   the growth of the backtrack limits of the runs
+     * @param firstLimit the backtracks of the first run
+     * @param seed       the seed of the runs
+     */
+    public RestartingSolver(@NonNull ConstraintModel model, @NonNull RestartSchedule schedule, long firstLimit,
+                            long seed) {
+        if (firstLimit < 1) {
+            throw new IllegalArgumentException("The first limit should be positive");
+        }
+
+        this.model = model;
+        this.schedule = schedule;
+        this.firstLimit = firstLimit;
+        this.seed = seed;
+        engine = new SolverEngine(model);
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+    }
+
+    /**
+     * Solves a board.
+     *
+     * @param board the board
+     * @return {@link SolveStatus#SOLVED} if a solution was found, {@link SolveStatus#UNSOLVABLE} if the board has no
+     * solution or {@link SolveStatus#CANCELLED} if {@link RestartingSolver#cancel()} was called
+     */
+    public SolveStatus solve(@NonNull SudokuBoard board) {
+        board.copyTo(puzzle);
+        return solve();
+    }
+
+    /**
+     * Solves the board given by its values in row-major order.
+     *
+     * @param values the values of the board with {@code 0} for empty cells
+     * @return {@link SolveStatus#SOLVED} if a solution was found, {@link SolveStatus#UNSOLVABLE} if the board has no
+     * solution or {@link SolveStatus#CANCELLED} if {@link RestartingSolver#cancel()} was called
+     * @throws IllegalArgumentException if the number of values is wrong or any value is invalid
+     */
+    public SolveStatus solve(int[] values) {
+        // the engine checks the values on its first reset
+        engine.reset(values);
+        System.arraycopy(values, 0, puzzle, 0, CELLS);
+        return solve();
+    }
+
+    private SolveStatus solve() {
+        cancelled = false;
+        restartCount = 0;
+        nodeCount = 0;
+        backtrackCount = 0;
+
+        final var seeds = new SplittableRandom(seed);
+        for (int run = 0; ; run++) {
+            var runSeed = seeds.nextLong();
+            // a seed of 0 would search in the fixed order
+            while (runSeed == 0) {
+                runSeed = seeds.nextLong();
+            }
+
+            final var factor = schedule.factor(run);
+            engine.setSeed(runSeed);
+            engine.setBacktrackLimit(factor > Long.MAX_VALUE / firstLimit ? Long.MAX_VALUE : factor * firstLimit);
+            engine.reset(puzzle);
+            if (cancelled) {
+                return SolveStatus.CANCELLED;
+            }
+
+            final var status = engine.solve();
+            nodeCount += engine.getNodeCount();
+            backtrackCount += engine.getBacktrackCount();
+            if (status != SolveStatus.CANCELLED || cancelled) {
+                return status;
+            }
+            restartCount++;
+        }
+    }
+
+    /**
+     * Stops a running solve, which then returns {@link SolveStatus#CANCELLED}. The request is cleared by the next
+     * solve.
+     */
+    public void cancel() {
+        cancelled = true;
+        engine.cancel();
+    }
+
+    /**
+     * Copies the values of the board into {@code values} in row-major order. After a successful solve, this is the
+     * solution.
+     *
+     * @param values an array of at least {@link SudokuBoard#SIZE}&nbsp;{@code *}&nbsp;{@link SudokuBoard#SIZE}
+     *               values
+     */
+    public void copyCells(int[] values) {
+        engine.copyCells(values);
+    }
+
+    /**
+     * Returns the values of the board as a new {@link SudokuBoard}.
+     *
+     * @return the solution after a successful solve
+     */
+    public SudokuBoard toBoard() {
+        return engine.toBoard();
+    }
+}
@@ -34,4 +34,9 @@ public class Result {
     @NonNull
     final SudokuBoard board;
     final int backTrackCount;
+    /**
+     * Name of the {@link SolverStrategy} that found the solution.
+     */
+    @NonNull
+    final String strategy;
 }
@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import lombok.Value;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of how far a {@link SolverEngine} has got with its search.
+ * <p>
+ * The explored fraction is the share of the whole search tree whose subtrees have been searched completely, where
+ * every branch of a node is counted as an equal part of it. It only grows during a search, reaches {@code 1} once the
+ * search is over, and divided into the elapsed time gives an estimate of the time left for an unsolvable board or
+ * the worst case for a solvable one.
+ *
+ * @author Abhyudaya Sharma
+ */
+@Value
+public class SearchProgress {
+    public static final SearchProgress NONE = new SearchProgress(0, 0, 0);
+
+    double exploredFraction;
+    long nodeCount;
+    long elapsedNanos;
+
+    public double getPercentage() {
+        return exploredFraction * 100;
+    }
+
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodeCount * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Extrapolates the time the search still needs from the explored fraction.
+     *
+     * @return the estimated time left in nanoseconds, or {@code -1} if nothing has been explored yet
+     */
+    public long getEstimatedRemainingNanos() {
+        if (exploredFraction <= 0) {
+            return -1;
+        }
+        return (long) (elapsedNanos * (1 - exploredFraction) / exploredFraction);
+    }
+
+    @Override
+    public String toString() {
+        var text = String.format("%.1f%% explored, %.0f nodes/s", getPercentage(), getNodesPerSecond());
+        final var remaining = getEstimatedRemainingNanos();
+        if (remaining > 0) {
+            text += String.format(", about %d s left", TimeUnit.NANOSECONDS.toSeconds(remaining) + 1);
+        }
+        return text;
+    }
+}
@@ -0,0 +1,579 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Solutions of puzzles kept in a file, so that a puzzle solved by one run is not searched again by the next.
+ * <p>
+ * The cache is an append-only log of fixed-size records, each holding a puzzle and its solution packed into four bits
+ * per cell and a CRC-32 of both, next to an open-addressing hash index of the records in a second file with the
+ * suffix {@code .index}. Both files are mapped into memory. Puzzles without a solution are stored with an empty
+ * solution, so that they are not searched again either.
+ * <p>
+ * The log is the only source of truth. {@link SolutionCache#flush()} forces the log to the disk before it records in
+ * the index how many records it covers, and on opening, the records after that number are checked and indexed again.
+ * A record torn by a crash fails its checksum and ends the log there, and an index that does not belong to the log
+ * is rebuilt from it. Every record that passes its checksum is a correct solution, so a record that survives a crash
+ * out of order does no harm.
+ * <p>
+ * When the log would grow beyond its size limit, it is compacted: the oldest records are dropped until half of the
+ * limit is used, the remaining ones are written to a new file which replaces the log, and the index is rebuilt.
+ * <p>
+ * Any number of threads may look up solutions at the same time; adding, flushing and closing wait for them.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class SolutionCache implements AutoCloseable {
+    private static final int CELLS = SIZE * SIZE;
+    private static final long LOG_MAGIC = 0x5344_4B53_4F4C_4E31L;
+    private static final long INDEX_MAGIC = 0x5344_4B49_4E44_5831L;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int PACKED_BYTES = (CELLS + 1) / 2;
+    /**
+     * A packed puzzle, its packed solution and the CRC-32 of both.
+     */
+    private static final int RECORD_BYTES = 2 * PACKED_BYTES + Integer.BYTES;
+    /**
+     * The largest size limit, so that the log fits in a single mapped buffer.
+     */
+    public static final long MAX_BYTES = 1 << 30;
+    private static final int MIN_LOG_RECORDS = 1024;
+    private static final int MIN_INDEX_CAPACITY = 1024;
+
+    private final Path logFile;
+    private final Path indexFile;
+    private final long maxBytes;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CRC32 crc = new CRC32();
+    /**
+     * Written by {@link SolutionCache#put(int[], int[])} while holding the write lock.
+     */
+    private final byte[] record = new byte[RECORD_BYTES];
+
+    private FileChannel logChannel;
+    private MappedByteBuffer log;
+    /**
+     * Changes whenever the log is rewritten, so that an index can be matched with its log.
+     */
+    private long generation;
+    private FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int indexCapacity;
+    private int size = 0;
+
+    private SolutionCache(Path logFile, long maxBytes) {
+        this.logFile = logFile;
+        this.indexFile = logFile.resolveSibling(logFile.getFileName() + ".index");
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Opens a cache, creating its files if they do not exist yet, and recovers the records written before a crash.
+     *
+     * @param file     the log of the cache
+     * @param model    the units of the variant whose solutions are cached
+     * @param maxBytes the size limit of the log, at most {@link SolutionCache#MAX_BYTES}
+     * @return the open cache
+     * @throws IOException              if the files cannot be read, written or mapped
+     * @throws IllegalArgumentException if the size limit is too small or too large, if the file is not a solution
+     *                                  cache or if it holds the solutions of another variant
+     */
+    public static SolutionCache open(@NonNull Path file, @NonNull ConstraintModel model, long maxBytes)
+        throws IOException {
+        if (maxBytes < HEADER_BYTES + 2L * RECORD_BYTES || maxBytes > MAX_BYTES) {
+            throw new IllegalArgumentException(
+                String.format("The size limit should be between %d and %d bytes", HEADER_BYTES + 2 * RECORD_BYTES,
+                    MAX_BYTES));
+        }
+
+        final var cache = new SolutionCache(file, maxBytes);
+        try {
+            cache.openLog(fingerprint(model));
+            cache.openIndex();
+        } catch (IOException | RuntimeException e) {
+            cache.closeChannels();
+            throw e;
+        }
+        return cache;
+    }
+
+    /**
+     * Looks up the solution of a puzzle.
+     *
+     * @param puzzle   the values of the puzzle in row-major order, {@code 0} for empty cells
+     * @param solution receives the solution in row-major order if the puzzle has one
+     * @return {@link SolveStatus#SOLVED} if the solution was copied, {@link SolveStatus#UNSOLVABLE} if the puzzle is
+     * known to have no solution, or {@code null} if the puzzle is not in the cache
+     * @throws IllegalArgumentException if the number of values is wrong or any value is invalid
+     */
+    public SolveStatus get(int[] puzzle, int[] solution) {
+        final var key = pack(puzzle);
+        final var hash = hash(key);
+        lock.readLock().lock();
+        try {
+            final var found = find(key, hash);
+            if (found < 0) {
+                return null;
+            }
+
+            final var offset = recordOffset(found) + PACKED_BYTES;
+            if ((log.get(offset) & 0xF0) == 0) {
+                return SolveStatus.UNSOLVABLE;
+            }
+            for (int cell = 0; cell < CELLS; cell++) {
+                final var packed = log.get(offset + cell / 2);
+                solution[cell] = (cell % 2 == 0 ? packed >>> 4 : packed) & 0xF;
+            }
+            return SolveStatus.SOLVED;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the solution of a puzzle, unless the puzzle is already in the cache.
+     *
+     * @param puzzle   the values of the puzzle in row-major order, {@code 0} for empty cells
+     * @param solution the solution in row-major order, or {@code null} if the puzzle has no solution
+     * @return true if the solution was added
+     * @throws IOException              if the log has to be grown or compacted and that fails
+     * @throws IllegalArgumentException if the number of values is wrong or any value is invalid
+     */
+    public boolean put(int[] puzzle, int[] solution) throws IOException {
+        final var key = pack(puzzle);
+        final var hash = hash(key);
+        if (solution != null) {
+            if (solution.length != CELLS) {
+                throw new IllegalArgumentException(String.format("The solution should have %d cells", CELLS));
+            }
+            for (var value : solution) {
+                if (value < 1 || value > SIZE) {
+                    throw new IllegalArgumentException(
+                        String.format("The number \"%d\" is not valid in a solution", value));
+                }
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (find(key, hash) >= 0) {
+                return false;
+            }
+
+            if (recordOffset(size + 1) > maxBytes) {
+                compact();
+            }
+            if (recordOffset(size + 1) > log.capacity()) {
+                final var capacity = Math.min(maxBytes, Math.max(recordOffset(size + 1), 2L * log.capacity()));
+                log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            }
+
+            System.arraycopy(key, 0, record, 0, PACKED_BYTES);
+            for (int i = 0; i < PACKED_BYTES; i++) {
+                record[PACKED_BYTES + i] = 0;
+            }
+            if (solution != null) {
+                packInto(solution, record, PACKED_BYTES);
+            }
+            crc.reset();
+            crc.update(record, 0, 2 * PACKED_BYTES);
+            final var checksum = (int) crc.getValue();
+
+            final var offset = recordOffset(size);
+            for (int i = 0; i < 2 * PACKED_BYTES; i++) {
+                log.put(offset + i, record[i]);
+            }
+            log.putInt(offset + 2 * PACKED_BYTES, checksum);
+            insert(size, hash);
+            size++;
+
+            if (size > indexCapacity - (indexCapacity >>> 2)) {
+                rebuildIndex(indexCapacity << 1);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of puzzles in the cache.
+     *
+     * @return the number of records in the log
+     */
+    public int getSize() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forces the log and then the index to the disk, so that a warm start does not need to check any records.
+     *
+     * @throws IOException if the files cannot be written
+     */
+    public void flush() throws IOException {
+        lock.writeLock().lock();
+        try {
+            log.force();
+            index.putLong(24, size);
+            index.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        lock.writeLock().lock();
+        try {
+            closeChannels();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void closeChannels() throws IOException {
+        // mapped buffers stay valid until they are garbage collected, but the files can be closed now
+        if (logChannel != null) {
+            logChannel.close();
+        }
+        if (indexChannel != null) {
+            indexChannel.close();
+        }
+    }
+
+    /**
+     * Opens or creates the log and checks its header.
+     */
+    private void openLog(long fingerprint) throws IOException {
+        logChannel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        final var existing = logChannel.size();
+        if (existing < HEADER_BYTES) {
+            generation = ThreadLocalRandom.current().nextLong();
+            log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                Math.min(maxBytes, recordOffset(MIN_LOG_RECORDS)));
+            writeLogHeader(log, fingerprint, generation);
+            return;
+        }
+
+        if (existing > MAX_BYTES) {
+            throw new IllegalArgumentException(String.format("\"%s\" is too large for a solution cache", logFile));
+        }
+        log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, existing);
+        if (log.getLong(0) != LOG_MAGIC || log.getInt(8) != VERSION || log.getInt(12) != RECORD_BYTES) {
+            throw new IllegalArgumentException(String.format("\"%s\" is not a solution cache", logFile));
+        }
+        if (log.getLong(16) != fingerprint) {
+            throw new IllegalArgumentException(
+                String.format("\"%s\" holds the solutions of another sudoku variant", logFile));
+        }
+        generation = log.getLong(24);
+    }
+
+    private static void writeLogHeader(ByteBuffer buffer, long fingerprint, long generation) {
+        buffer.putLong(0, LOG_MAGIC);
+        buffer.putInt(8, VERSION);
+        buffer.putInt(12, RECORD_BYTES);
+        buffer.putLong(16, fingerprint);
+        buffer.putLong(24, generation);
+    }
+
+    /**
+     * Opens the index if it belongs to the log, otherwise rebuilds it, and indexes the records written since the
+     * last {@link SolutionCache#flush()}.
+     */
+    private void openIndex() throws IOException {
+        var indexed = 0L;
+        if (Files.exists(indexFile)) {
+            indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            final var bytes = indexChannel.size();
+            if (bytes >= HEADER_BYTES) {
+                index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                final var capacity = index.getLong(16);
+                indexed = index.getLong(24);
+                if (index.getLong(0) != INDEX_MAGIC || index.getLong(8) != generation
+                    || capacity < MIN_INDEX_CAPACITY || Long.bitCount(capacity) != 1
+                    || bytes != HEADER_BYTES + capacity * Long.BYTES
+                    || indexed < 0 || indexed > capacity || recordOffset(indexed) > log.capacity()
+                    || indexed > 0 && !isValid((int) indexed - 1)) {
+                    index = null;
+                } else {
+                    indexCapacity = (int) capacity;
+                }
+            }
+        }
+
+        // the flushed records are trusted, the rest are checked
+        size = index == null ? 0 : (int) indexed;
+        while (recordOffset(size + 1) <= log.capacity() && isValid(size)) {
+            size++;
+        }
+
+        if (index == null) {
+            rebuildIndex(indexCapacityFor(size));
+        } else {
+            for (int r = (int) indexed; r < size; r++) {
+                final var key = readKey(r);
+                final var hash = hash(key);
+                if (find(key, hash) < 0) {
+                    insert(r, hash);
+                }
+            }
+            if (size > indexCapacity - (indexCapacity >>> 2)) {
+                rebuildIndex(indexCapacityFor(size));
+            }
+        }
+
+        if (recordOffset(size) > maxBytes) {
+            // opened with a smaller limit than the log was written with
+            compact();
+        }
+    }
+
+    private static int indexCapacityFor(int records) {
+        var capacity = MIN_INDEX_CAPACITY;
+        while (records > capacity - (capacity >>> 2)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Replaces the index with one of the given capacity holding every record of the log. The index records that it
+     * covers no records until the next {@link SolutionCache#flush()}.
+     */
+    private void rebuildIndex(int capacity) throws IOException {
+        final var temporary = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        final var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        final var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * Long.BYTES);
+        buffer.putLong(0, INDEX_MAGIC);
+        buffer.putLong(8, generation);
+        buffer.putLong(16, capacity);
+        buffer.putLong(24, 0);
+        Files.move(temporary, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        if (indexChannel != null) {
+            indexChannel.close();
+        }
+        indexChannel = channel;
+        index = buffer;
+        indexCapacity = capacity;
+        for (int r = 0; r < size; r++) {
+            final var key = readKey(r);
+            final var hash = hash(key);
+            if (find(key, hash) < 0) {
+                insert(r, hash);
+            }
+        }
+    }
+
+    /**
+     * Keeps the newest records that fit in half of the size limit and rewrites the log with a new generation.
+     */
+    private void compact() throws IOException {
+        final var keep = (int) Math.min(size, (maxBytes / 2 - HEADER_BYTES) / RECORD_BYTES);
+        final var first = size - keep;
+        final var newGeneration = generation + 1;
+
+        final var temporary = logFile.resolveSibling(logFile.getFileName() + ".tmp");
+        final var capacity = Math.min(maxBytes, recordOffset(Math.max(keep * 2, MIN_LOG_RECORDS)));
+        final var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        final var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        writeLogHeader(buffer, log.getLong(16), newGeneration);
+        for (int r = 0; r < keep; r++) {
+            final var from = recordOffset(first + r);
+            final var to = recordOffset(r);
+            for (int i = 0; i < RECORD_BYTES; i++) {
+                buffer.put(to + i, log.get(from + i));
+            }
+        }
+        buffer.force();
+        Files.move(temporary, logFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        logChannel.close();
+        logChannel = channel;
+        log = buffer;
+        generation = newGeneration;
+        size = keep;
+        rebuildIndex(indexCapacityFor(size));
+    }
+
+    /**
+     * Looks up the record of a packed puzzle.
+     *
+     * @return the record, or {@code -(slot + 1)} for the empty slot where it belongs
+     */
+    private long find(byte[] key, long hash) {
+        final var mask = indexCapacity - 1;
+        final var tag = hash >>> 32;
+        for (var slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            final var entry = index.getLong(HEADER_BYTES + slot * Long.BYTES);
+            if (entry == 0) {
+                return -slot - 1;
+            }
+
+            // an entry written before a crash may point past the records that survived it
+            final var found = (entry & 0xFFFF_FFFFL) - 1;
+            if (entry >>> 32 == tag && found < size && matches((int) found, key)) {
+                return found;
+            }
+        }
+    }
+
+    /**
+     * Adds a record that is not in the index yet. An entry holds the high half of the hash and the record plus one.
+     */
+    private void insert(int found, long hash) {
+        final var mask = indexCapacity - 1;
+        var slot = (int) hash & mask;
+        while (index.getLong(HEADER_BYTES + slot * Long.BYTES) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index.putLong(HEADER_BYTES + slot * Long.BYTES, (hash >>> 32) << 32 | (found + 1L));
+    }
+
+    private boolean matches(int found, byte[] key) {
+        final var offset = recordOffset(found);
+        for (int i = 0; i < PACKED_BYTES; i++) {
+            if (log.get(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] readKey(int found) {
+        final var key = new byte[PACKED_BYTES];
+        final var offset = recordOffset(found);
+        for (int i = 0; i < PACKED_BYTES; i++) {
+            key[i] = log.get(offset + i);
+        }
+        return key;
+    }
+
+    /**
+     * Checks the checksum of a record. Records that were never written are all zeros, which fail the check.
+     */
+    private boolean isValid(int found) {
+        final var offset = recordOffset(found);
+        crc.reset();
+        for (int i = 0; i < 2 * PACKED_BYTES; i++) {
+            crc.update(log.get(offset + i));
+        }
+        return log.getInt(offset + 2 * PACKED_BYTES) == (int) crc.getValue();
+    }
+
+    private static int recordOffset(long found) {
+        return (int) Math.min(Integer.MAX_VALUE, HEADER_BYTES + found * RECORD_BYTES);
+    }
+
+    private static byte[] pack(int[] cells) {
+        if (cells.length != CELLS) {
+            throw new IllegalArgumentException(String.format("The board should have %d cells", CELLS));
+        }
+        for (var value : cells) {
+            if (value < 0 || value > SIZE) {
+                throw new IllegalArgumentException(
+                    String.format("The number \"%d\" is not valid as the value of a sudoku block", value));
+            }
+        }
+
+        final var packed = new byte[PACKED_BYTES];
+        packInto(cells, packed, 0);
+        return packed;
+    }
+
+    /**
+     * Packs two cells into every byte, the first one into the high four bits.
+     */
+    private static void packInto(int[] cells, byte[] packed, int offset) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            packed[offset + cell / 2] |= (byte) (cell % 2 == 0 ? cells[cell] << 4 : cells[cell]);
+        }
+    }
+
+    /**
+     * Hashes a packed puzzle eight bytes at a time, mixing every word with the finalizer of MurmurHash3.
+     */
+    private static long hash(byte[] key) {
+        var hash = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < key.length; i += Long.BYTES) {
+            var word = 0L;
+            for (int j = i; j < Math.min(i + Long.BYTES, key.length); j++) {
+                word = word << 8 | (key[j] & 0xFF);
+            }
+            hash = mix(hash ^ word);
+        }
+        return hash;
+    }
+
+    /**
+     * Identifies the units and cages of a model, so that solutions of one variant are not served for another.
+     */
+    private static long fingerprint(ConstraintModel model) {
+        var hash = mix(model.getUnitCount());
+        for (var cell : model.unitCells) {
+            hash = mix(hash ^ cell);
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            final var cage = model.getCage(cell);
+            hash = mix(hash ^ (cage < 0 ? -1 : model.getCageSum(cage) << 16 | cage));
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        var hash = value * 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import lombok.NonNull;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates the solutions of a board lazily, for boards with too many solutions to collect.
+ * <p>
+ * Every spliterator owns a {@link SolverEngine} which continues its search after each solution, so the memory used
+ * only depends on the depth of the search, not on the number of solutions. {@link SolutionSpliterator#trySplit()}
+ * hands about half of the untried values of the shallowest undecided cell to a new spliterator, so a parallel stream
+ * shares the remaining search tree between threads, with the biggest subtrees given away first.
+ * <p>
+ * The solutions come in no particular order. The number of solutions is not known in advance, so the size estimate
+ * only halves with every split.
+ *
+ * @author Abhyudaya Sharma
+ */
+public final class SolutionSpliterator implements Spliterator<SudokuBoard> {
+    private final SolverEngine engine;
+    /**
+     * Halved by every split, so that a parallel stream stops splitting after a few splits per thread instead of
+     * handing out every subtree on its own.
+     */
+    private long estimatedSize;
+
+    private SolutionSpliterator(SolverEngine engine, long estimatedSize) {
+        this.engine = engine;
+        this.estimatedSize = estimatedSize;
+    }
+
+    /**
+     * Returns the solutions of a classic board.
+     *
+     * @param board the board to solve
+     * @return a lazy stream of every solution, which is empty if the board has none
+     */
+    public static Stream<SudokuBoard> stream(SudokuBoard board) {
+        return stream(ConstraintModel.CLASSIC, board);
+    }
+
+    /**
+     * Returns the solutions of a board of a sudoku variant.
+     *
+     * @param model the units of the variant
+     * @param board the board to solve
+     * @return a lazy stream of every solution, which is empty if the board has none
+     */
+    public static Stream<SudokuBoard> stream(@NonNull ConstraintModel model, @NonNull SudokuBoard board) {
+        final var engine = new SolverEngine(model);
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        engine.reset(board);
+        return StreamSupport.stream(new SolutionSpliterator(engine, Long.MAX_VALUE), false);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super SudokuBoard> action) {
+        if (engine.solveNext() != SolveStatus.SOLVED) {
+            return false;
+        }
+
+        action.accept(engine.toBoard());
+        return true;
+    }
+
+    @Override
+    public Spliterator<SudokuBoard> trySplit() {
+        final var other = engine.split();
+        if (other == null) {
+            return null;
+        }
+
+        estimatedSize >>>= 1;
+        return new SolutionSpliterator(other, estimatedSize);
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return DISTINCT | NONNULL | IMMUTABLE;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Checks submitted answers against their puzzles in bulk.
+ * <p>
+ * Boards are packed into byte arrays of {@code SIZE * SIZE} values each, in row-major order with {@code 0} for empty
+ * cells, so that a batch of millions of boards is two arrays. A single pass over the cells of an answer ORs the bit
+ * of every value into the masks of its units and cages and compares it with the given of its puzzle. A full unit of
+ * {@code SIZE} cells holds every value exactly once if and only if its mask has all {@code SIZE} bits, so no separate
+ * duplicate check is needed. Nothing is allocated per board.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class SolutionVerifier {
+    /**
+     * The result of verifying one answer. When an answer has several problems, the first one in this order is
+     * reported.
+     */
+    public enum Status {
+        /**
+         * The answer is a solution of the puzzle.
+         */
+        VALID,
+        /**
+         * Some value of the answer is not between {@code 0} and {@code SIZE}.
+         */
+        MALFORMED,
+        /**
+         * Some cell of the answer is empty.
+         */
+        INCOMPLETE,
+        /**
+         * Some given of the puzzle has a different value in the answer.
+         */
+        GIVEN_CHANGED,
+        /**
+         * Some unit holds a value twice, or some cage does not add up to its sum.
+         */
+        CONFLICT
+    }
+
+    private static final int CELLS = SIZE * SIZE;
+    /**
+     * Boards verified by one task of {@link SolutionVerifier#verifyAll}.
+     */
+    private static final int CHUNK_BOARDS = 4096;
+    private static final int FULL_MASK = SolverEngine.ALL_VALUES << 1;
+
+    @Getter
+    private final ConstraintModel model;
+    private final int[] unitMasks;
+    private final int[] cageMasks;
+    private final int[] cageTotals;
+
+    /**
+     * Creates a verifier for classic sudoku.
+     */
+    public SolutionVerifier() {
+        this(ConstraintModel.CLASSIC);
+    }
+
+    /**
+     * Creates a verifier for the sudoku variant with the given units and cages.
+     *
+     * @param model the units of the variant
+     */
+    public SolutionVerifier(@NonNull ConstraintModel model) {
+        this.model = model;
+        unitMasks = new int[model.getUnitCount()];
+        cageMasks = new int[model.getCageCount()];
+        cageTotals = new int[model.getCageCount()];
+    }
+
+    /**
+     * Verifies a single answer on the calling thread. Not thread-safe, since it reuses the scratch space of the
+     * verifier.
+     *
+     * @param puzzles the packed puzzles
+     * @param answers the packed answers, one for every puzzle
+     * @param index   the number of the board in both arrays
+     * @return the result
+     * @throws IndexOutOfBoundsException if there is no board with the index
+     */
+    public Status verify(byte[] puzzles, byte[] answers, int index) {
+        return verify(puzzles, answers, index * CELLS, unitMasks, cageMasks, cageTotals);
+    }
+
+    /**
+     * Verifies every answer of a batch, sharing the boards between the threads of the common pool. Thread-safe.
+     *
+     * @param puzzles the packed puzzles
+     * @param answers the packed answers, one for every puzzle
+     * @return the result of every board, in the order of the boards
+     * @throws IllegalArgumentException if the arrays do not hold the same number of whole boards
+     */
+    public Status[] verifyAll(@NonNull byte[] puzzles, @NonNull byte[] answers) {
+        if (puzzles.length != answers.length || puzzles.length % CELLS != 0) {
+            throw new IllegalArgumentException(
+                String.format("Both arrays should hold the same number of boards of %d cells", CELLS));
+        }
+
+        final var statuses = new Status[puzzles.length / CELLS];
+        final var chunks = (statuses.length + CHUNK_BOARDS - 1) / CHUNK_BOARDS;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            final var chunkUnitMasks = new int[unitMasks.length];
+            final var chunkCageMasks = new int[cageMasks.length];
+            final var chunkCageTotals = new int[cageTotals.length];
+            final var end = Math.min(statuses.length, (chunk + 1) * CHUNK_BOARDS);
+            for (int board = chunk * CHUNK_BOARDS; board < end; board++) {
+                statuses[board] = verify(puzzles, answers, board * CELLS, chunkUnitMasks, chunkCageMasks,
+                    chunkCageTotals);
+            }
+        });
+        return statuses;
+    }
+
+    private Status verify(byte[] puzzles, byte[] answers, int offset, int[] unitMasks, int[] cageMasks,
+                          int[] cageTotals) {
+        Arrays.fill(unitMasks, 0);
+        Arrays.fill(cageMasks, 0);
+        Arrays.fill(cageTotals, 0);
+
+        final var cellUnitStart = model.cellUnitStart;
+        final var cellUnits = model.cellUnits;
+        final var cageOf = model.cageOf;
+        var malformed = false;
+        var changed = false;
+        var conflict = false;
+        for (int cell = 0; cell < CELLS; cell++) {
+            final var value = answers[offset + cell];
+            final var given = puzzles[offset + cell];
+            malformed |= value < 0 || value > SIZE;
+            changed |= given != 0 && given != value;
+
+            // bit 0 stands for an empty cell, which makes the mask of its units incomplete
+            final var bit = 1 << (value & 31);
+            for (int k = cellUnitStart[cell]; k < cellUnitStart[cell + 1]; k++) {
+                unitMasks[cellUnits[k]] |= bit;
+            }
+
+            final var cage = cageOf[cell];
+            if (cage >= 0) {
+                conflict |= (cageMasks[cage] & bit) != 0;
+                cageMasks[cage] |= bit;
+                cageTotals[cage] += value;
+            }
+        }
+
+        if (malformed) {
+            return Status.MALFORMED;
+        }
+
+        var empty = false;
+        for (var mask : unitMasks) {
+            empty |= (mask & 1) != 0;
+            conflict |= mask != FULL_MASK;
+        }
+        for (int cage = 0; cage < cageTotals.length; cage++) {
+            empty |= (cageMasks[cage] & 1) != 0;
+            conflict |= cageTotals[cage] != model.cageSums[cage];
+        }
+
+        if (empty) {
+            return Status.INCOMPLETE;
+        } else if (changed) {
+            return Status.GIVEN_CHANGED;
+        }
+        return conflict ? Status.CONFLICT : Status.VALID;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a search of a {@link SolverEngine}, from its start until it solves the board, proves
+ * that there is no solution or is cancelled.
+ * <p>
+ * Like the other events of the solver, it is disabled unless a recording enables it, e.g. with the
+ * {@code sudoku.jfc} settings.
+ *
+ * @author Abhyudaya Sharma
+ */
+@Name("com.abhyudayasharma.sudoku.Solve")
+@Label("Solve")
+@Category("Sudoku")
+@Description("A search of the solver engine")
+@Enabled(false)
+@StackTrace(false)
+class SolveEvent extends Event {
+    @Label("Variant")
+    String variant;
+    @Label("Cell Order")
+    String cellOrder;
+    @Label("Clues")
+    @Description("The number of filled cells of the board")
+    int clues;
+    @Label("Status")
+    String status;
+    @Label("Nodes")
+    long nodes;
+    @Label("Backtracks")
+    int backtracks;
+}
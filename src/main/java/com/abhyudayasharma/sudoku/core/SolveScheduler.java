@@ -0,0 +1,302 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Solves boards of two priority classes on a shared pool of threads, so that background work such as batch solves
+ * or puzzle generation does not hold up the solves a user is waiting for.
+ * <p>
+ * Every class has its own queue and its own limit on the number of its boards being solved at the same time. A free
+ * thread always takes an {@link Priority#INTERACTIVE} board first if the limit of that class allows it. A
+ * {@link Priority#BULK} search runs in chunks of {@link SolveScheduler#CHUNK_NODES} nodes; after every chunk it gives
+ * its thread up to any interactive board that is waiting and goes back to the front of its queue, from where it later
+ * continues with the same engine. An interactive board therefore waits for at most one chunk of bulk work, while
+ * bulk boards use every thread that interactive boards leave free.
+ * <p>
+ * Like {@link AsyncSolver}, completing a future in any way stops its search, and a board without a solution
+ * completes its future with an {@link IllegalArgumentException}. The queue depth, the number of running boards and
+ * the time boards waited before they started are reported for every class by
+ * {@link SolveScheduler#getStatistics(Priority)}.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class SolveScheduler implements AutoCloseable {
+    /**
+     * The number of nodes a bulk search runs before it checks for interactive boards, about a millisecond of work.
+     */
+    public static final long CHUNK_NODES = 10_000;
+
+    public enum Priority {
+        /**
+         * Boards that someone is waiting for. They are never preempted.
+         */
+        INTERACTIVE,
+        /**
+         * Background boards, which give way to interactive ones between chunks of their search.
+         */
+        BULK
+    }
+
+    @Getter
+    private final ConstraintModel model;
+    @Getter
+    private final SolverStrategy strategy;
+    private final Map<Priority, PriorityClass> classes = new EnumMap<>(Priority.class);
+    private final List<Thread> workers = new ArrayList<>();
+    /**
+     * The boards being solved.
+     */
+    private final List<Task> active = new ArrayList<>();
+    /**
+     * Guards the queues and the counters of every {@link PriorityClass}.
+     */
+    private final Object lock = new Object();
+    private boolean closed = false;
+
+    /**
+     * Creates a scheduler for classic boards with one thread per processor, which may all be used by either class.
+     */
+    public SolveScheduler() {
+        this(ConstraintModel.CLASSIC, SolverStrategy.MIN_REMAINING_VALUES, Runtime.getRuntime().availableProcessors(),
+            Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a scheduler with its own threads.
+     *
+     * @param model            the units of the variant to solve
+     * @param strategy         the strategy of every search
+     * @param threads          the number of boards solved at the same time
+     * @param interactiveLimit the largest number of interactive boards solved at the same time
+     * @param bulkLimit        the largest number of bulk boards solved at the same time
+     * @throws IllegalArgumentException if any number is not positive
+     */
+    public SolveScheduler(@NonNull ConstraintModel model, @NonNull SolverStrategy strategy, int threads,
+                          int interactiveLimit, int bulkLimit) {
+        if (threads < 1 || interactiveLimit < 1 || bulkLimit < 1) {
+            throw new IllegalArgumentException("The number of threads and the limits should be positive");
+        }
+
+        this.model = model;
+        this.strategy = strategy;
+        classes.put(Priority.INTERACTIVE, new PriorityClass(interactiveLimit));
+        classes.put(Priority.BULK, new PriorityClass(bulkLimit));
+
+        final var factory = new DaemonThreadFactory("scheduler");
+        for (int i = 0; i < threads; i++) {
+            final var worker = factory.newThread(this::work);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues a board.
+     *
+     * @param board    the board to solve
+     * @param priority the class of the board
+     * @return a future that completes with the solution, or with a {@link RejectedExecutionException} if the
+     * scheduler has been closed
+     */
+    public CompletableFuture<Result> solve(@NonNull SudokuBoard board, @NonNull Priority priority) {
+        final var task = new Task(board, priority);
+        synchronized (lock) {
+            if (closed) {
+                task.future.completeExceptionally(new RejectedExecutionException("The scheduler has been closed."));
+                return task.future;
+            }
+            classes.get(priority).queue.addLast(task);
+            lock.notifyAll();
+        }
+        return task.future;
+    }
+
+    /**
+     * Returns a snapshot of the work of a priority class.
+     *
+     * @param priority the class
+     * @return the current statistics of the class
+     */
+    public SchedulerStatistics getStatistics(@NonNull Priority priority) {
+        synchronized (lock) {
+            final var state = classes.get(priority);
+            return new SchedulerStatistics(state.queue.size(), state.running, state.completed,
+                state.started == 0 ? 0 : state.totalWaitNanos / state.started, state.maxWaitNanos);
+        }
+    }
+
+    /**
+     * Stops the threads of the scheduler. Boards that are still waiting are cancelled, and running searches are
+     * stopped.
+     */
+    @Override
+    public void close() {
+        final var cancelled = new ArrayList<Task>();
+        synchronized (lock) {
+            closed = true;
+            cancelled.addAll(active);
+            for (var state : classes.values()) {
+                cancelled.addAll(state.queue);
+                state.queue.clear();
+            }
+            lock.notifyAll();
+        }
+        for (var task : cancelled) {
+            task.future.cancel(false);
+        }
+        for (var worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    private void work() {
+        while (true) {
+            final Task task;
+            synchronized (lock) {
+                var next = next();
+                while (next == null) {
+                    if (closed) {
+                        return;
+                    }
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        // closing interrupts the idle threads
+                    }
+                    next = next();
+                }
+                task = next;
+            }
+
+            final var preempted = task.run();
+            synchronized (lock) {
+                final var state = classes.get(task.priority);
+                state.running--;
+                active.remove(task);
+                if (preempted && !closed) {
+                    state.queue.addFirst(task);
+                } else {
+                    state.completed++;
+                    if (preempted) {
+                        task.future.cancel(false);
+                    }
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Takes the next board to solve, in the order of the priorities, and records how long it waited. Must be called
+     * while holding the lock.
+     *
+     * @return the board, or {@code null} if no class has a board that its limit allows to start
+     */
+    private Task next() {
+        for (var state : classes.values()) {
+            final var task = state.running < state.limit ? state.queue.pollFirst() : null;
+            if (task == null) {
+                continue;
+            }
+
+            state.running++;
+            active.add(task);
+            if (task.engine == null) {
+                final var wait = System.nanoTime() - task.submitNanos;
+                state.started++;
+                state.totalWaitNanos += wait;
+                state.maxWaitNanos = Math.max(state.maxWaitNanos, wait);
+            }
+            return task;
+        }
+        return null;
+    }
+
+    /**
+     * Whether a bulk search should give its thread to an interactive board.
+     */
+    private boolean interactiveWaiting() {
+        synchronized (lock) {
+            final var interactive = classes.get(Priority.INTERACTIVE);
+            return !interactive.queue.isEmpty() && interactive.running < interactive.limit;
+        }
+    }
+
+    /**
+     * The queue, limit and counters of a priority class.
+     */
+    private static class PriorityClass {
+        private final int limit;
+        private final ArrayDeque<Task> queue = new ArrayDeque<>();
+        private int running = 0;
+        private long completed = 0;
+        private long started = 0;
+        private long totalWaitNanos = 0;
+        private long maxWaitNanos = 0;
+
+        private PriorityClass(int limit) {
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * The search for a single board, which keeps its engine while it is preempted.
+     */
+    private class Task extends BoardSearch {
+        private final Priority priority;
+        private final long submitNanos = System.nanoTime();
+
+        private Task(SudokuBoard board, Priority priority) {
+            super(board, model, strategy);
+            this.priority = priority;
+        }
+
+        /**
+         * Searches until the board is solved or, for a bulk board, until an interactive board is waiting.
+         *
+         * @return true if the search was preempted and should continue later
+         */
+        private boolean run() {
+            final var nodes = priority == Priority.BULK ? CHUNK_NODES : Long.MAX_VALUE;
+            while (search(nodes)) {
+                if (interactiveWaiting()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static com.abhyudayasharma.sudoku.core.TraceRecorder.CELLS;
+import static com.abhyudayasharma.sudoku.core.TraceRecorder.END;
+import static com.abhyudayasharma.sudoku.core.TraceRecorder.ESCAPE;
+import static com.abhyudayasharma.sudoku.core.TraceRecorder.FOOTER_MAGIC;
+import static com.abhyudayasharma.sudoku.core.TraceRecorder.KEYFRAME;
+import static com.abhyudayasharma.sudoku.core.TraceRecorder.MAGIC;
+import static com.abhyudayasharma.sudoku.core.TraceRecorder.MIN_PACKED_DELTA;
+import static com.abhyudayasharma.sudoku.core.TraceRecorder.VERSION;
+
+/**
+ * A solve trace written by {@link TraceRecorder} that can be seeked to any step.
+ * <p>
+ * The board at a step is rebuilt from the nearest keyframe at or before that step, so seeking never replays more
+ * than one keyframe interval of steps. Traces whose recording was interrupted before the keyframe index was written
+ * are still readable; the index is then rebuilt by scanning the trace once.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class SolveTrace {
+    private static final int HEADER_SIZE = 10;
+    private static final int FOOTER_SIZE = 12;
+
+    private final byte[] data;
+    private final int keyframeInterval;
+    private final int[] keyframeOffsets;
+    private final int stepCount;
+
+    private SolveTrace(byte[] data) {
+        this.data = data;
+        var buffer = ByteBuffer.wrap(data);
+        if (data.length < HEADER_SIZE + 1 + CELLS || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("The data is not a sudoku solve trace.");
+        }
+
+        var version = buffer.get();
+        var size = buffer.get();
+        if (version != VERSION || size != SIZE) {
+            throw new IllegalArgumentException(
+                String.format("Unsupported trace version %d for a board of size %d", version, size));
+        }
+
+        keyframeInterval = buffer.getInt();
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("The trace has an invalid keyframe interval.");
+        }
+
+        var footer = data.length - FOOTER_SIZE;
+        if (footer > HEADER_SIZE && buffer.getInt(footer + 8) == FOOTER_MAGIC) {
+            var indexOffset = buffer.getInt(footer);
+            stepCount = buffer.getInt(footer + 4);
+            keyframeOffsets = new int[buffer.getInt(indexOffset + 1)];
+            for (int i = 0; i < keyframeOffsets.length; i++) {
+                keyframeOffsets[i] = buffer.getInt(indexOffset + 5 + 4 * i);
+            }
+        } else {
+            var offsets = new int[16];
+            var keyframes = 0;
+            var steps = 0;
+            var position = HEADER_SIZE;
+            while (position < data.length) {
+                var tag = data[position] & 0xFF;
+                if (tag == KEYFRAME) {
+                    if (position + 1 + CELLS > data.length) {
+                        break;
+                    }
+                    if (keyframes == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, keyframes * 2);
+                    }
+                    offsets[keyframes++] = position;
+                    position += 1 + CELLS;
+                } else if (tag == END) {
+                    break;
+                } else if ((tag & 0xF0) == ESCAPE) {
+                    if (position + 2 > data.length) {
+                        break;
+                    }
+                    position += 2;
+                    steps++;
+                } else {
+                    position++;
+                    steps++;
+                }
+            }
+
+            keyframeOffsets = Arrays.copyOf(offsets, keyframes);
+            stepCount = steps;
+        }
+    }
+
+    /**
+     * Reads a trace from a stream.
+     *
+     * @param in the stream containing the trace. It is read till the end but not closed.
+     * @return the trace read from the stream
+     * @throws IOException              if the stream cannot be read
+     * @throws IllegalArgumentException if the stream does not contain a valid trace
+     */
+    public static SolveTrace read(InputStream in) throws IOException {
+        return new SolveTrace(in.readAllBytes());
+    }
+
+    /**
+     * Reads a trace from a file.
+     *
+     * @param path the path to the trace file
+     * @return the trace read from the file
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file does not contain a valid trace
+     */
+    public static SolveTrace read(Path path) throws IOException {
+        return new SolveTrace(Files.readAllBytes(path));
+    }
+
+    /**
+     * Writes the trace in the format read by {@link SolveTrace#read(InputStream)}.
+     *
+     * @param out the stream to write to. It is not closed.
+     * @throws IOException if the trace cannot be written
+     */
+    public void write(OutputStream out) throws IOException {
+        out.write(data);
+    }
+
+    /**
+     * Returns the number of steps in the trace.
+     *
+     * @return the number of steps in the trace
+     */
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * Returns the board after the given number of steps.
+     *
+     * @param step the number of steps to apply to the initial board, between {@code 0} and
+     *             {@link SolveTrace#getStepCount()}
+     * @return the board after {@code step} steps
+     * @throws IndexOutOfBoundsException if the step is not in the trace
+     */
+    public SudokuBoard boardAt(int step) {
+        if (step < 0 || step > stepCount) {
+            throw new IndexOutOfBoundsException(
+                String.format("Step %d is not in the trace of %d steps", step, stepCount));
+        }
+
+        var keyframe = Math.min(step / keyframeInterval, keyframeOffsets.length - 1);
+        var position = keyframeOffsets[keyframe] + 1;
+        var cells = Arrays.copyOfRange(data, position, position + CELLS);
+        position += CELLS;
+
+        var cell = 0;
+        var remaining = step - keyframe * keyframeInterval;
+        while (remaining > 0) {
+            var tag = data[position++] & 0xFF;
+            if (tag == KEYFRAME) {
+                // keyframes are only crossed when the index of a truncated trace is missing entries
+                System.arraycopy(data, position, cells, 0, CELLS);
+                position += CELLS;
+                cell = 0;
+                continue;
+            }
+
+            if ((tag & 0xF0) == ESCAPE) {
+                cell = data[position++] & 0xFF;
+            } else {
+                cell += (tag >>> 4) + MIN_PACKED_DELTA;
+            }
+            cells[cell] = (byte) (tag & 0x0F);
+            remaining--;
+        }
+
+        var matrix = new int[SIZE][SIZE];
+        for (int i = 0; i < CELLS; i++) {
+            matrix[i / SIZE][i % SIZE] = cells[i];
+        }
+        return SudokuBoard.of(matrix);
+    }
+}
@@ -0,0 +1,851 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.util.Arrays;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * A reusable backtracking search over a {@link SudokuBoard} which does not allocate while solving.
+ * <p>
+ * The values used by every unit of the {@link ConstraintModel} are kept as bitmasks and the undo history is kept in a
+ * trail of preallocated {@code int} arrays: for every depth of the search, the cell that was filled and the values that
+ * are still left to try for it. A single engine can solve any number of boards one after another by calling
+ * {@link SolverEngine#reset(SudokuBoard)} before every {@link SolverEngine#solve()}.
+ * <p>
+ * The units of the variant are read from the flat tables compiled by the {@link ConstraintModel}, so classic sudoku and
+ * its variants go through the same loop. The cells of a Killer sudoku cage are further limited to the digits that can
+ * still complete the sum of the cage, which is looked up in a precomputed table.
+ * <p>
+ * An engine is not thread-safe, except for {@link SolverEngine#cancel()} which may be called from any thread.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class SolverEngine {
+    static final int CELLS = SIZE * SIZE;
+    /**
+     * Bitmask with one bit for every value. The bit {@code 1 << (value - 1)} stands for {@code value}.
+     */
+    static final int ALL_VALUES = (1 << SIZE) - 1;
+    /**
+     * Subtrees with fewer nodes are not worth an entry of the {@link TranspositionTable}, since searching them again
+     * costs about as much as the lookups.
+     */
+    private static final long MIN_STORED_NODES = 64;
+    /**
+     * States with fewer empty cells than this are neither looked up in nor stored to the {@link TranspositionTable}.
+     */
+    private static final int MIN_LOOKUP_EMPTY_CELLS = 16;
+
+    @Getter
+    private final ConstraintModel model;
+    private final int[] cellUnitStart;
+    private final int[] cellUnits;
+
+    private final int[] cells = new int[CELLS];
+    /**
+     * The values used by every unit of the {@link SolverEngine#model}.
+     */
+    private final int[] unitMasks;
+    private final int[] cageOf;
+    private final long[] stateKeys;
+    /**
+     * For every cage, the digits already placed in it.
+     */
+    private final int[] cageUsed;
+    /**
+     * For every cage, its sum minus the digits already placed in it.
+     */
+    private final int[] cageSums;
+    /**
+     * For every cage, the number of its empty cells.
+     */
+    private final int[] cageEmpty;
+    /**
+     * For every cell, the values forbidden by {@link SolverEngine#exclude(int, int)} until the next {@code reset}.
+     */
+    private final int[] excluded = new int[CELLS];
+    private boolean excluding = false;
+
+    /**
+     * The cells filled by the search, in the order in which they were filled.
+     */
+    private final int[] trailCells = new int[CELLS];
+    /**
+     * For every entry of {@link SolverEngine#trailCells}, the values that have not been tried yet.
+     */
+    private final int[] trailCandidates = new int[CELLS];
+    /**
+     * For every entry of {@link SolverEngine#trailCells}, the number of values it had when it was chosen.
+     */
+    private final int[] trailBranching = new int[CELLS];
+    /**
+     * For every entry of {@link SolverEngine#trailCells}, the number of solutions counted before it was chosen.
+     */
+    private final long[] trailCounts = new long[CELLS];
+    /**
+     * For every entry of {@link SolverEngine#trailCells}, the number of nodes searched before it was chosen.
+     */
+    private final long[] trailNodes = new long[CELLS];
+    private int depth = 0;
+    /**
+     * Whether the next step of the search fills a new cell rather than trying the next value of the last one.
+     */
+    private boolean descending = true;
+    private boolean consistent = true;
+    /**
+     * The Zobrist hash of the search state, updated on every assignment: the exclusive or of the
+     * {@link ConstraintModel#stateKeys} of all values on the board.
+     */
+    private long hash = 0;
+    private int selectedCandidates = 0;
+
+    @Getter
+    private SolveStatus status = null;
+    @Getter
+    private int backtrackCount = 0;
+    @Getter
+    private long nodeCount = 0;
+
+    @Getter
+    @Setter
+    private CellOrder cellOrder = CellOrder.ROW_MAJOR;
+
+    /**
+     * Seed for breaking ties between equally good cells and for the order in which values are tried. With the default
+     * of {@code 0}, the first cell is chosen and values are tried in increasing order. Any other seed makes the choices
+     * random, but the same for every solve of the same board with the same seed.
+     */
+    @Getter
+    @Setter
+    private long seed = 0;
+    private long random = 0;
+
+    /**
+     * Receives every step of the search. May be {@code null}.
+     */
+    @Setter
+    private MoveListener moveListener = null;
+
+    /**
+     * Caches the number of solutions below searched board states for {@link SolverEngine#countSolutions(long)}.
+     * May be {@code null}.
+     */
+    @Getter
+    @Setter
+    private TranspositionTable transpositionTable = null;
+
+    /**
+     * The number of nodes after which a search stops as if it had been cancelled, so that a search can be given a
+     * budget that does not depend on the speed of the machine. A {@link SolverEngine#solve()} stopped by the limit
+     * continues where it stopped when it is called again after raising the limit.
+     */
+    @Getter
+    @Setter
+    private long nodeLimit = Long.MAX_VALUE;
+
+    /**
+     * The number of backtracks after which a search stops as if it had been cancelled, so that a
+     * {@link RestartingSolver} can give up on an unlucky order of cells. Like the {@link SolverEngine#nodeLimit}, a
+     * search stopped by this limit continues when it is raised.
+     */
+    @Getter
+    @Setter
+    private long backtrackLimit = Long.MAX_VALUE;
+
+    private volatile boolean cancelled = false;
+    private volatile boolean progressRequested = false;
+    private volatile SearchProgress progress = SearchProgress.NONE;
+    private long startNanos = 0;
+    private int clueCount = 0;
+    /**
+     * The event of the running search if a recording has enabled {@link SolveEvent}, otherwise {@code null}.
+     */
+    private SolveEvent solveEvent = null;
+
+    /**
+     * Creates an engine for classic sudoku.
+     */
+    public SolverEngine() {
+        this(ConstraintModel.CLASSIC);
+    }
+
+    /**
+     * Creates an engine for the sudoku variant with the given units.
+     *
+     * @param model the units of the variant
+     */
+    public SolverEngine(@NonNull ConstraintModel model) {
+        this.model = model;
+        cellUnitStart = model.cellUnitStart;
+        cellUnits = model.cellUnits;
+        unitMasks = new int[model.getUnitCount()];
+        cageOf = model.cageOf;
+        stateKeys = model.stateKeys;
+        cageUsed = new int[model.getCageCount()];
+        cageSums = new int[model.getCageCount()];
+        cageEmpty = new int[model.getCageCount()];
+    }
+
+    /**
+     * Prepares the engine to solve the given board.
+     *
+     * @param board the board to be solved
+     */
+    public void reset(SudokuBoard board) {
+        board.copyTo(cells);
+        load();
+    }
+
+    /**
+     * Prepares the engine to solve the board given by its values in row-major order.
+     *
+     * @param values {@link SudokuBoard#SIZE}&nbsp;{@code *}&nbsp;{@link SudokuBoard#SIZE} values with {@code 0} for
+     *               empty cells
+     * @throws IllegalArgumentException if the number of values is wrong or any value is invalid
+     */
+    public void reset(int[] values) {
+        if (values.length != CELLS) {
+            throw new IllegalArgumentException(String.format("The board should have %d cells", CELLS));
+        }
+
+        for (int value : values) {
+            if (value < 0 || value > SIZE) {
+                throw new IllegalArgumentException(
+                    String.format("The number \"%d\" is not valid as the value of a sudoku block", value));
+            }
+        }
+
+        System.arraycopy(values, 0, cells, 0, CELLS);
+        load();
+    }
+
+    private void load() {
+        final var event = FlightEvents.isEnabled(PropagationEvent.class) ? new PropagationEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+
+        Arrays.fill(unitMasks, 0);
+        Arrays.fill(cageUsed, 0);
+        if (excluding) {
+            Arrays.fill(excluded, 0);
+            excluding = false;
+        }
+        System.arraycopy(model.cageSums, 0, cageSums, 0, cageSums.length);
+        System.arraycopy(model.cageSizes, 0, cageEmpty, 0, cageEmpty.length);
+
+        consistent = true;
+        hash = 0;
+        clueCount = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            final var value = cells[cell];
+            if (value == 0) {
+                continue;
+            }
+
+            clueCount++;
+            hash ^= stateKeys[cell * SIZE + value - 1];
+
+            final var bit = 1 << (value - 1);
+            if ((used(cell) & bit) != 0) {
+                consistent = false;
+            }
+            for (int k = cellUnitStart[cell]; k < cellUnitStart[cell + 1]; k++) {
+                unitMasks[cellUnits[k]] |= bit;
+            }
+
+            final var cage = cageOf[cell];
+            if (cage >= 0) {
+                if ((cageUsed[cage] & bit) != 0) {
+                    consistent = false;
+                }
+                cageUsed[cage] |= bit;
+                cageSums[cage] -= value;
+                cageEmpty[cage]--;
+            }
+        }
+
+        for (int cage = 0; cage < cageSums.length; cage++) {
+            if (cageEmpty[cage] == 0 ? cageSums[cage] != 0
+                : CageTable.allowed(cageEmpty[cage], cageSums[cage], cageUsed[cage]) == 0) {
+                consistent = false;
+            }
+        }
+
+        depth = 0;
+        descending = true;
+        status = null;
+        backtrackCount = 0;
+        nodeCount = 0;
+        cancelled = false;
+        random = seed;
+        startNanos = 0;
+        progress = SearchProgress.NONE;
+        solveEvent = null;
+
+        if (event != null && event.shouldCommit()) {
+            event.clues = clueCount;
+            event.consistent = consistent;
+            event.commit();
+        }
+    }
+
+    /**
+     * Searches for a solution of the board given to the last {@code reset}.
+     * <p>
+     * Once the search has finished, calling this method again returns the same status without searching, unless it
+     * was stopped by the {@link SolverEngine#nodeLimit} or the {@link SolverEngine#backtrackLimit} which has been
+     * raised since.
+     *
+     * @return {@link SolveStatus#SOLVED} if a solution was found, {@link SolveStatus#UNSOLVABLE} if the board has no
+     * solution or {@link SolveStatus#CANCELLED} if {@link SolverEngine#cancel()} was called or the
+     * {@link SolverEngine#nodeLimit} or the {@link SolverEngine#backtrackLimit} was reached
+     */
+    public SolveStatus solve() {
+        if (status != null) {
+            if (status != SolveStatus.CANCELLED || cancelled || limitReached()) {
+                return status;
+            }
+            status = null;
+        }
+
+        if (startNanos == 0) {
+            startNanos = System.nanoTime();
+            beginSolveEvent();
+        }
+
+        if (!consistent) {
+            return finish(SolveStatus.UNSOLVABLE);
+        }
+
+        while (true) {
+            if (cancelled || limitReached()) {
+                return finish(SolveStatus.CANCELLED);
+            }
+
+            if (progressRequested) {
+                progressRequested = false;
+                // rounding may make the sum slightly smaller after backtracking
+                final var fraction = Math.max(exploredFraction(), progress.getExploredFraction());
+                progress = new SearchProgress(fraction, nodeCount, System.nanoTime() - startNanos);
+            }
+
+            if (descending) {
+                final var next = selectCell();
+                if (next < 0) {
+                    return finish(SolveStatus.SOLVED);
+                }
+
+                trailCells[depth] = next;
+                trailCandidates[depth] = selectedCandidates;
+                trailBranching[depth] = Integer.bitCount(selectedCandidates);
+                depth++;
+            }
+
+            final var top = depth - 1;
+            final var cell = trailCells[top];
+            final var candidates = trailCandidates[top];
+            if (candidates == 0) {
+                // no values left for this cell, go back to the previous one and try its next value
+                assign(cell, 0);
+                depth--;
+                if (depth == 0) {
+                    return finish(SolveStatus.UNSOLVABLE);
+                }
+
+                backtrackCount++;
+                if (moveListener != null) {
+                    final var previous = trailCells[depth - 1];
+                    moveListener.onBacktrack(cell / SIZE, cell % SIZE, previous / SIZE, previous % SIZE);
+                }
+                descending = false;
+                continue;
+            }
+
+            // without a seed, values are tried in increasing order
+            final var bit = seed == 0 ? candidates & -candidates : randomBit(candidates);
+            trailCandidates[top] = candidates ^ bit;
+            assign(cell, Integer.numberOfTrailingZeros(bit) + 1);
+            nodeCount++;
+            descending = true;
+        }
+    }
+
+    /**
+     * Continues the search after the solution found by the last {@code solve} or {@code solveNext}, so that every
+     * solution of a board can be visited without storing the ones already found. Before the first solution, this is
+     * the same as {@link SolverEngine#solve()}.
+     *
+     * @return {@link SolveStatus#SOLVED} if another solution was found, {@link SolveStatus#UNSOLVABLE} if there are no
+     * more solutions or {@link SolveStatus#CANCELLED} if {@link SolverEngine#cancel()} was called or the
+     * {@link SolverEngine#nodeLimit} or the {@link SolverEngine#backtrackLimit} was reached
+     */
+    public SolveStatus solveNext() {
+        if (status == SolveStatus.SOLVED) {
+            if (depth == 0) {
+                // the board was full to begin with
+                return finish(SolveStatus.UNSOLVABLE);
+            }
+            status = null;
+            descending = false;
+        }
+        return solve();
+    }
+
+    /**
+     * Hands over part of the search that has not been done yet to a new engine. About half of the untried values of
+     * the shallowest cell that has any are removed from this search, and the new engine searches exactly their
+     * subtrees, so the two engines together find every remaining solution once.
+     * <p>
+     * This engine must not be searching, and must either not have started or have stopped at a solution.
+     *
+     * @return an engine with the same settings that has not started yet, or {@code null} if no untried values are left
+     */
+    SolverEngine split() {
+        if (!consistent || status != null && status != SolveStatus.SOLVED) {
+            return null;
+        }
+
+        if (status == null && depth == 0) {
+            // enter the first cell without assigning a value, so that its values can be shared
+            final var first = selectCell();
+            if (first < 0) {
+                return null;
+            }
+            trailCells[0] = first;
+            trailCandidates[0] = selectedCandidates;
+            trailBranching[0] = Integer.bitCount(selectedCandidates);
+            depth = 1;
+            descending = false;
+        }
+
+        for (int level = 0; level < depth; level++) {
+            final var untried = trailCandidates[level];
+            if (untried == 0) {
+                continue;
+            }
+
+            // keep the values that would be tried next and give away the rest, or the only one
+            var given = untried;
+            for (int keep = Integer.bitCount(untried) / 2; keep > 0; keep--) {
+                given &= given - 1;
+            }
+            trailCandidates[level] = untried ^ given;
+
+            final var other = new SolverEngine(model);
+            other.cellOrder = cellOrder;
+            other.seed = seed;
+            other.nodeLimit = nodeLimit;
+            other.backtrackLimit = backtrackLimit;
+            System.arraycopy(cells, 0, other.cells, 0, CELLS);
+            for (int l = level; l < depth; l++) {
+                other.cells[trailCells[l]] = 0;
+            }
+            other.load();
+            System.arraycopy(excluded, 0, other.excluded, 0, CELLS);
+            other.excluding = excluding;
+            other.trailCells[0] = trailCells[level];
+            other.trailCandidates[0] = given;
+            other.trailBranching[0] = Integer.bitCount(given);
+            other.depth = 1;
+            other.descending = false;
+            return other;
+        }
+        return null;
+    }
+
+    /**
+     * Counts the solutions of the board given to the last {@code reset}, stopping once {@code limit} solutions have
+     * been found. A limit of {@code 2} is enough to check whether a puzzle has a unique solution.
+     * <p>
+     * Whenever the subtree of a board state has been searched completely, its number of solutions is stored in the
+     * {@link SolverEngine#transpositionTable}, and a state found in the table is not searched again. The board must
+     * be reset before the next count or solve.
+     *
+     * @param limit the number of solutions after which to stop
+     * @return the number of solutions, at most {@code limit}. If the count was cancelled, the solutions found so far.
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public long countSolutions(long limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("The limit should be positive");
+        }
+
+        // the counts of the table hold for boards without excluded values
+        final var table = excluding ? null : transpositionTable;
+        if (table == null || !FlightEvents.isEnabled(CacheEvent.class)) {
+            return count(limit, table);
+        }
+
+        final var hits = table.getHitCount();
+        final var lookups = table.getLookupCount();
+        final var count = count(limit, table);
+        final var event = new CacheEvent();
+        if (event.shouldCommit()) {
+            event.cache = CacheEvent.TRANSPOSITIONS;
+            event.hits = table.getHitCount() - hits;
+            event.misses = table.getLookupCount() - lookups - event.hits;
+            event.commit();
+        }
+        return count;
+    }
+
+    private long count(long limit, TranspositionTable table) {
+        if (startNanos == 0) {
+            startNanos = System.nanoTime();
+            beginSolveEvent();
+        }
+
+        if (!consistent) {
+            finish(SolveStatus.UNSOLVABLE);
+            return 0;
+        }
+
+        var count = 0L;
+        var empty = 0;
+        for (var value : cells) {
+            if (value == 0) {
+                empty++;
+            }
+        }
+        // states close to the leaves have subtrees too small to be worth a lookup
+        final var lookupDepth = empty - MIN_LOOKUP_EMPTY_CELLS;
+        while (true) {
+            if (cancelled || limitReached()) {
+                finish(SolveStatus.CANCELLED);
+                return count;
+            }
+
+            if (descending) {
+                final var known = table == null || depth > lookupDepth ? -1 : table.get(hash);
+                final var next = known >= 0 ? -1 : selectCell();
+                if (next < 0) {
+                    // either a solution or a state whose solutions are known; go on with the next value of the
+                    // last cell
+                    count += known >= 0 ? known : 1;
+                    if (count >= limit || depth == 0) {
+                        if (count >= limit) {
+                            budgetExhausted(BudgetExhaustedEvent.SOLUTION_LIMIT);
+                        }
+                        finish(count > 0 ? SolveStatus.SOLVED : SolveStatus.UNSOLVABLE);
+                        return Math.min(count, limit);
+                    }
+                    descending = false;
+                    continue;
+                }
+
+                trailCells[depth] = next;
+                trailCandidates[depth] = selectedCandidates;
+                trailBranching[depth] = Integer.bitCount(selectedCandidates);
+                trailCounts[depth] = count;
+                trailNodes[depth] = nodeCount;
+                depth++;
+            }
+
+            final var top = depth - 1;
+            final var cell = trailCells[top];
+            final var candidates = trailCandidates[top];
+            if (candidates == 0) {
+                // every value of this cell has been searched, so the state before it is complete
+                assign(cell, 0);
+                depth--;
+                if (table != null && depth <= lookupDepth && nodeCount - trailNodes[depth] >= MIN_STORED_NODES) {
+                    table.put(hash, count - trailCounts[depth]);
+                }
+                if (depth == 0) {
+                    finish(count > 0 ? SolveStatus.SOLVED : SolveStatus.UNSOLVABLE);
+                    return count;
+                }
+
+                backtrackCount++;
+                descending = false;
+                continue;
+            }
+
+            final var bit = seed == 0 ? candidates & -candidates : randomBit(candidates);
+            trailCandidates[top] = candidates ^ bit;
+            assign(cell, Integer.numberOfTrailingZeros(bit) + 1);
+            nodeCount++;
+            descending = true;
+        }
+    }
+
+    /**
+     * Returns how far the search has got. Safe to call from any thread while {@link SolverEngine#solve()} runs.
+     * <p>
+     * The search only takes a snapshot when one has been asked for, so the returned snapshot is the one taken after
+     * the previous call, and polling at regular intervals costs the search nothing between the polls.
+     *
+     * @return the latest snapshot, or {@link SearchProgress#NONE} if none has been taken since the last {@code reset}
+     */
+    public SearchProgress getProgress() {
+        progressRequested = true;
+        return progress;
+    }
+
+    private SolveStatus finish(SolveStatus finalStatus) {
+        status = finalStatus;
+        if (progress != SearchProgress.NONE || progressRequested) {
+            final var fraction = finalStatus == SolveStatus.CANCELLED
+                ? Math.max(exploredFraction(), progress.getExploredFraction()) : 1;
+            progress = new SearchProgress(fraction, nodeCount, startNanos == 0 ? 0 : System.nanoTime() - startNanos);
+        }
+
+        final var event = solveEvent;
+        if (event != null) {
+            solveEvent = null;
+            event.variant = model.getName();
+            event.cellOrder = cellOrder.name();
+            event.clues = clueCount;
+            event.status = finalStatus.name();
+            event.nodes = nodeCount;
+            event.backtracks = backtrackCount;
+            event.commit();
+        }
+        if (finalStatus == SolveStatus.CANCELLED) {
+            budgetExhausted(cancelled ? BudgetExhaustedEvent.CANCELLED
+                : nodeCount >= nodeLimit ? BudgetExhaustedEvent.NODE_LIMIT : BudgetExhaustedEvent.BACKTRACK_LIMIT);
+        }
+        return finalStatus;
+    }
+
+    private boolean limitReached() {
+        return nodeCount >= nodeLimit || backtrackCount >= backtrackLimit;
+    }
+
+    private void beginSolveEvent() {
+        if (FlightEvents.isEnabled(SolveEvent.class)) {
+            solveEvent = new SolveEvent();
+            solveEvent.begin();
+        }
+    }
+
+    private void budgetExhausted(String reason) {
+        if (FlightEvents.isEnabled(BudgetExhaustedEvent.class)) {
+            final var event = new BudgetExhaustedEvent();
+            if (event.shouldCommit()) {
+                event.reason = reason;
+                event.nodes = nodeCount;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Estimates the share of the search tree that has been searched, counting every value of a cell as an equal
+     * part of the subtree of the cell.
+     */
+    double exploredFraction() {
+        var fraction = 0.0;
+        var width = 1.0;
+        for (int d = 0; d < depth; d++) {
+            final var branching = trailBranching[d];
+            if (branching == 0) {
+                break;
+            }
+
+            width /= branching;
+            // the values that have been tried, except for the one being searched now unless its subtree is finished
+            final var searching = d == depth - 1 && !descending ? 0 : 1;
+            final var done = branching - Integer.bitCount(trailCandidates[d]) - searching;
+            if (done > 0) {
+                fraction += done * width;
+            }
+        }
+        return fraction;
+    }
+
+    /**
+     * Forbids a value in an empty cell until the next {@code reset}, so that a search only finds solutions with
+     * another value there. Must be called before the search of the board starts.
+     * <p>
+     * A count with excluded values does not use the {@link SolverEngine#transpositionTable}.
+     *
+     * @param cell  the index of the cell in row-major order
+     * @param value the value to forbid
+     * @throws IllegalArgumentException if the cell or the value is not valid
+     */
+    public void exclude(int cell, int value) {
+        if (cell < 0 || cell >= CELLS || value < 1 || value > SIZE) {
+            throw new IllegalArgumentException(String.format("Cannot exclude %d from cell %d", value, cell));
+        }
+
+        excluded[cell] |= 1 << (value - 1);
+        excluding = true;
+    }
+
+    /**
+     * Stops a running {@link SolverEngine#solve()}, which then returns {@link SolveStatus#CANCELLED}.
+     * The request is cleared by the next {@code reset}.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Copies the current values of the board into {@code values} in row-major order. After a successful solve, this
+     * is the solution.
+     *
+     * @param values an array of at least {@link SudokuBoard#SIZE}&nbsp;{@code *}&nbsp;{@link SudokuBoard#SIZE}
+     *               values
+     */
+    public void copyCells(int[] values) {
+        System.arraycopy(cells, 0, values, 0, CELLS);
+    }
+
+    /**
+     * Returns the current values of the board as a new {@link SudokuBoard}.
+     *
+     * @return the solution after a successful solve
+     */
+    public SudokuBoard toBoard() {
+        return SudokuBoard.of(cells.clone());
+    }
+
+    /**
+     * Chooses the next empty cell according to {@link SolverEngine#cellOrder} and stores its candidates in
+     * {@link SolverEngine#selectedCandidates}.
+     *
+     * @return the chosen cell, or {@code -1} if the board is full
+     */
+    private int selectCell() {
+        if (cellOrder == CellOrder.ROW_MAJOR) {
+            // every cell before the last filled one has a value
+            for (int cell = depth == 0 ? 0 : trailCells[depth - 1] + 1; cell < CELLS; cell++) {
+                if (cells[cell] == 0) {
+                    selectedCandidates = candidates(cell);
+                    return cell;
+                }
+            }
+            return -1;
+        }
+
+        var best = -1;
+        var bestCount = Integer.MAX_VALUE;
+        var ties = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (cells[cell] != 0) {
+                continue;
+            }
+
+            final var candidates = candidates(cell);
+            final var count = Integer.bitCount(candidates);
+            if (count < bestCount) {
+                best = cell;
+                bestCount = count;
+                selectedCandidates = candidates;
+                ties = 1;
+                if (count <= 1) {
+                    break;
+                }
+            } else if (count == bestCount && seed != 0 && nextRandom(++ties) == 0) {
+                // every tied cell is kept with the same probability
+                best = cell;
+                selectedCandidates = candidates;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Chooses one of the set bits of {@code candidates} at random.
+     */
+    private int randomBit(int candidates) {
+        var remaining = candidates;
+        for (var skip = nextRandom(Integer.bitCount(candidates)); skip > 0; skip--) {
+            remaining &= remaining - 1;
+        }
+        return remaining & -remaining;
+    }
+
+    /**
+     * Returns a pseudo-random number between {@code 0} (inclusive) and {@code bound} (exclusive) using a xorshift
+     * generator, which unlike {@link java.util.Random} does not allocate or synchronise.
+     */
+    private int nextRandom(int bound) {
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        return (int) Long.remainderUnsigned(random, bound);
+    }
+
+    private int candidates(int cell) {
+        final var candidates = ~(used(cell) | excluded[cell]) & ALL_VALUES;
+        final var cage = cageOf[cell];
+        if (cage < 0) {
+            return candidates;
+        }
+        return candidates & CageTable.allowed(cageEmpty[cage], cageSums[cage], cageUsed[cage]);
+    }
+
+    /**
+     * Returns the values used by the units of {@code cell}.
+     */
+    private int used(int cell) {
+        var used = 0;
+        for (int k = cellUnitStart[cell]; k < cellUnitStart[cell + 1]; k++) {
+            used |= unitMasks[cellUnits[k]];
+        }
+        return used;
+    }
+
+    private void assign(int cell, int value) {
+        final var oldValue = cells[cell];
+        if (oldValue == value) {
+            return;
+        }
+
+        // the units of a cell never hold its value twice, so toggling the bits removes the old value and adds the new
+        final var bits = (oldValue == 0 ? 0 : 1 << (oldValue - 1)) ^ (value == 0 ? 0 : 1 << (value - 1));
+        for (int k = cellUnitStart[cell]; k < cellUnitStart[cell + 1]; k++) {
+            unitMasks[cellUnits[k]] ^= bits;
+        }
+
+        final var cage = cageOf[cell];
+        if (cage >= 0) {
+            cageUsed[cage] ^= bits;
+            cageSums[cage] += oldValue - value;
+            cageEmpty[cage] += (oldValue == 0 ? 0 : 1) - (value == 0 ? 0 : 1);
+        }
+
+        cells[cell] = value;
+        if (oldValue != 0) {
+            hash ^= stateKeys[cell * SIZE + oldValue - 1];
+        }
+        if (value != 0) {
+            hash ^= stateKeys[cell * SIZE + value - 1];
+        }
+        if (moveListener != null) {
+            moveListener.onAssignment(cell / SIZE, cell % SIZE, oldValue, value);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.lang.invoke.MethodHandles;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Writes the source of a {@link SpecializedSolver} for a {@link ConstraintModel}, compiles it in memory and defines
+ * the class next to {@link SpecializedSolver}, so that it can use the package-private members of this package.
+ * <p>
+ * The JIT does not compile methods with more than 8000 bytes of bytecode, so the unrolled code is split into one
+ * method per task: loading the givens, selecting a cell and updating the units of a cell.
+ *
+ * @author Abhyudaya Sharma
+ */
+final class SolverGenerator {
+    private static final String PACKAGE = SpecializedSolver.class.getPackageName();
+    private static final int CELLS = SIZE * SIZE;
+    /**
+     * Makes the names of the generated classes unique, since a class loader cannot define a name twice.
+     */
+    private static final AtomicInteger GENERATED = new AtomicInteger();
+
+    private SolverGenerator() {
+    }
+
+    static boolean isAvailable() {
+        return ToolProvider.getSystemJavaCompiler() != null;
+    }
+
+    static SpecializedSolver generate(ConstraintModel model) {
+        final var className = "GeneratedSolver" + GENERATED.incrementAndGet();
+        final var type = compile(className, source(className, model));
+        try {
+            return (SpecializedSolver) type.getDeclaredConstructor(ConstraintModel.class).newInstance(model);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create the generated solver", e);
+        }
+    }
+
+    /**
+     * Returns the source of a solver class for the model. Package-private for testing.
+     */
+    static String source(String className, ConstraintModel model) {
+        final var units = model.getUnitCount();
+        final var out = new StringBuilder(64 * 1024);
+        line(out, "package %s;", PACKAGE);
+        line(out, "");
+        line(out, "final class %s extends SpecializedSolver {", className);
+        for (int u = 0; u < units; u++) {
+            line(out, "    private int u%d;", u);
+        }
+        line(out, "    private final int[] trailCells = new int[%d];", CELLS);
+        line(out, "    private final int[] trailCandidates = new int[%d];", CELLS);
+        line(out, "    private int selected;");
+        line(out, "");
+        line(out, "    %s(ConstraintModel model) {", className);
+        line(out, "        super(model);");
+        line(out, "    }");
+        line(out, "");
+        line(out, "    @Override");
+        line(out, "    public SpecializedSolver newInstance() {");
+        line(out, "        return new %s(getModel());", className);
+        line(out, "    }");
+
+        line(out, "");
+        line(out, "    @Override");
+        line(out, "    boolean load(int[] c) {");
+        for (int u = 0; u < units; u++) {
+            line(out, "        u%d = 0;", u);
+        }
+        line(out, "        int b;");
+        for (int cell = 0; cell < CELLS; cell++) {
+            line(out, "        if (c[%d] != 0) {", cell);
+            line(out, "            b = 1 << (c[%d] - 1);", cell);
+            line(out, "            if (((%s) & b) != 0) {", used(model, cell));
+            line(out, "                return false;");
+            line(out, "            }");
+            line(out, "            toggle(%d, b);", cell);
+            line(out, "        }");
+        }
+        line(out, "        return true;");
+        line(out, "    }");
+
+        // the same loop as SolverEngine#solve(), without the listeners, limits and statistics
+        line(out, "");
+        line(out, "    @Override");
+        line(out, "    boolean search(int[] c) {");
+        line(out, "        int depth = 0;");
+        line(out, "        long nodes = 0;");
+        line(out, "        boolean descending = true;");
+        line(out, "        while (true) {");
+        line(out, "            if (descending) {");
+        line(out, "                int next = select(c);");
+        line(out, "                if (next < 0) {");
+        line(out, "                    nodeCount = nodes;");
+        line(out, "                    return true;");
+        line(out, "                }");
+        line(out, "                trailCells[depth] = next;");
+        line(out, "                trailCandidates[depth] = selected;");
+        line(out, "                depth++;");
+        line(out, "            }");
+        line(out, "            int top = depth - 1;");
+        line(out, "            int cell = trailCells[top];");
+        line(out, "            int candidates = trailCandidates[top];");
+        line(out, "            int old = c[cell];");
+        line(out, "            if (candidates == 0) {");
+        line(out, "                if (old != 0) {");
+        line(out, "                    toggle(cell, 1 << (old - 1));");
+        line(out, "                    c[cell] = 0;");
+        line(out, "                }");
+        line(out, "                depth--;");
+        line(out, "                if (depth == 0) {");
+        line(out, "                    nodeCount = nodes;");
+        line(out, "                    return false;");
+        line(out, "                }");
+        line(out, "                descending = false;");
+        line(out, "                continue;");
+        line(out, "            }");
+        line(out, "            int bit = candidates & -candidates;");
+        line(out, "            trailCandidates[top] = candidates ^ bit;");
+        line(out, "            toggle(cell, old == 0 ? bit : bit ^ 1 << (old - 1));");
+        line(out, "            c[cell] = Integer.numberOfTrailingZeros(bit) + 1;");
+        line(out, "            nodes++;");
+        line(out, "            descending = true;");
+        line(out, "        }");
+        line(out, "    }");
+
+        // the first empty cell with the fewest candidates, like CellOrder.MIN_REMAINING_VALUES
+        line(out, "");
+        line(out, "    private int select(int[] c) {");
+        line(out, "        int best = -1;");
+        line(out, "        int bestCount = %d;", SIZE + 1);
+        line(out, "        int m;");
+        line(out, "        int n;");
+        line(out, "        scan:");
+        line(out, "        {");
+        for (int cell = 0; cell < CELLS; cell++) {
+            line(out, "            if (c[%d] == 0) {", cell);
+            line(out, "                m = ~(%s) & %d;", used(model, cell), SolverEngine.ALL_VALUES);
+            line(out, "                n = Integer.bitCount(m);");
+            line(out, "                if (n < bestCount) {");
+            line(out, "                    best = %d;", cell);
+            line(out, "                    bestCount = n;");
+            line(out, "                    selected = m;");
+            line(out, "                    if (n <= 1) {");
+            line(out, "                        break scan;");
+            line(out, "                    }");
+            line(out, "                }");
+            line(out, "            }");
+        }
+        line(out, "        }");
+        line(out, "        return best;");
+        line(out, "    }");
+
+        line(out, "");
+        line(out, "    private void toggle(int cell, int bits) {");
+        line(out, "        switch (cell) {");
+        for (int cell = 0; cell < CELLS; cell++) {
+            line(out, "            case %d:", cell);
+            for (int k = model.cellUnitStart[cell]; k < model.cellUnitStart[cell + 1]; k++) {
+                line(out, "                u%d ^= bits;", model.cellUnits[k]);
+            }
+            line(out, "                return;");
+        }
+        line(out, "            default:");
+        line(out, "                throw new IllegalArgumentException(\"No such cell: \" + cell);");
+        line(out, "        }");
+        line(out, "    }");
+        line(out, "}");
+        return out.toString();
+    }
+
+    /**
+     * Returns an expression for the values used by the units of a cell.
+     */
+    private static String used(ConstraintModel model, int cell) {
+        final var expression = new StringBuilder();
+        for (int k = model.cellUnitStart[cell]; k < model.cellUnitStart[cell + 1]; k++) {
+            if (expression.length() > 0) {
+                expression.append(" | ");
+            }
+            expression.append('u').append(model.cellUnits[k]);
+        }
+        return expression.toString();
+    }
+
+    private static void line(StringBuilder out, String format, Object... args) {
+        out.append(String.format(format, args)).append('\n');
+    }
+
+    /**
+     * Compiles the source of a single top-level class without writing any files and defines it in this package.
+     */
+    private static Class<?> compile(String className, String source) {
+        final var compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Generating a solver needs the Java compiler of a JDK");
+        }
+
+        final var path = PACKAGE.replace('.', '/') + '/' + className;
+        final var sourceFile = new SimpleJavaFileObject(URI.create("string:///" + path + ".java"),
+            JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        final var bytecode = new ByteArrayOutputStream();
+        final var standardManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+        final var fileManager = new ForwardingJavaFileManager<JavaFileManager>(standardManager) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String name, JavaFileObject.Kind kind,
+                                                       FileObject sibling) {
+                return new SimpleJavaFileObject(URI.create("bytes:///" + path + kind.extension), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        return bytecode;
+                    }
+                };
+            }
+        };
+
+        final var diagnostics = new StringWriter();
+        // the classes of this package are found on the class path; annotation processors such as lombok are not needed
+        final var options = List.of("-proc:none", "-classpath", System.getProperty("java.class.path"));
+        final var compiled = compiler.getTask(diagnostics, fileManager, null, options, null, List.of(sourceFile))
+            .call();
+        if (!compiled) {
+            throw new IllegalStateException("Could not compile the generated solver: " + diagnostics);
+        }
+
+        try {
+            return MethodHandles.lookup().defineClass(bytecode.toByteArray());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Could not define the generated solver", e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A named configuration of a {@link SolverEngine}.
+ *
+ * @author Abhyudaya Sharma
+ */
+@Value
+@SuppressWarnings("WeakerAccess")
+public class SolverStrategy {
+    /**
+     * Fills the cells in row-major order and tries values in increasing order, like the animated solver.
+     */
+    public static final SolverStrategy ROW_MAJOR = new SolverStrategy("row-major", CellOrder.ROW_MAJOR, 0);
+    /**
+     * Fills the cell with the fewest remaining values first.
+     */
+    public static final SolverStrategy MIN_REMAINING_VALUES =
+        new SolverStrategy("mrv", CellOrder.MIN_REMAINING_VALUES, 0);
+
+    @NonNull
+    final String name;
+    @NonNull
+    final CellOrder cellOrder;
+    /**
+     * The seed for random tie-breaking, see {@link SolverEngine#setSeed(long)}.
+     */
+    final long seed;
+
+    /**
+     * Creates a strategy that fills the cell with the fewest remaining values first and breaks ties at random.
+     *
+     * @param seed the seed for random tie-breaking, not {@code 0}
+     * @return a new strategy named after its seed
+     */
+    public static SolverStrategy randomized(long seed) {
+        if (seed == 0) {
+            throw new IllegalArgumentException("The seed of a randomized strategy should not be 0");
+        }
+        return new SolverStrategy("mrv-seed-" + seed, CellOrder.MIN_REMAINING_VALUES, seed);
+    }
+
+    /**
+     * Configures the engine to search with this strategy. Takes effect on the next {@code reset} of the engine.
+     *
+     * @param engine the engine to configure
+     */
+    public void configure(SolverEngine engine) {
+        engine.setCellOrder(cellOrder);
+        engine.setSeed(seed);
+    }
+}
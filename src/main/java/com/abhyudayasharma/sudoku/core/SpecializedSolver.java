@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * A solver generated at runtime for the units of one {@link ConstraintModel}.
+ * <p>
+ * The {@link SolverEngine} reads the units of every cell from the tables of its model, so it takes the same loops and
+ * indirect loads for every variant. A specialised solver is a class generated from the tables instead: the mask of
+ * every unit is a field of its own, and selecting a cell and updating the units of a cell are unrolled into straight
+ * line code with the cells and units as constants. It searches exactly like a {@link SolverEngine} with
+ * {@link CellOrder#MIN_REMAINING_VALUES} and no seed, and visits the same nodes.
+ * <p>
+ * Generating a solver needs the compiler of a JDK and takes a good fraction of a second, so a solver should be
+ * generated once for a model and copied with {@link SpecializedSolver#newInstance()} for other threads. A solver is
+ * not thread-safe.
+ *
+ * @author Abhyudaya Sharma
+ */
+public abstract class SpecializedSolver {
+    @Getter
+    private final ConstraintModel model;
+    /**
+     * The number of values tried by the last solve.
+     */
+    @Getter
+    long nodeCount = 0;
+
+    SpecializedSolver(ConstraintModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Checks whether solvers can be generated, i.e. whether the JVM comes with a Java compiler.
+     *
+     * @return true if {@link SpecializedSolver#generate(ConstraintModel)} can be used
+     */
+    public static boolean isAvailable() {
+        return SolverGenerator.isAvailable();
+    }
+
+    /**
+     * Generates a solver for the units of a model.
+     *
+     * @param model the units of the variant
+     * @return a new solver
+     * @throws IllegalArgumentException if the model has Killer sudoku cages, which are not specialised
+     * @throws IllegalStateException    if the JVM has no Java compiler
+     */
+    public static SpecializedSolver generate(@NonNull ConstraintModel model) {
+        if (model.getCageCount() > 0) {
+            throw new IllegalArgumentException("Solvers cannot be generated for models with cages");
+        }
+        return SolverGenerator.generate(model);
+    }
+
+    /**
+     * Creates another solver of the same generated class, without generating it again.
+     *
+     * @return a new solver for the same model
+     */
+    public abstract SpecializedSolver newInstance();
+
+    /**
+     * Solves a board in place.
+     *
+     * @param cells {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE}&nbsp;{@code *}&nbsp;
+     *              {@link com.abhyudayasharma.sudoku.SudokuBoard#SIZE} values in row-major order with {@code 0} for
+     *              empty cells, which hold the solution if one is found
+     * @return {@link SolveStatus#SOLVED} if a solution was found, otherwise {@link SolveStatus#UNSOLVABLE} and the
+     * cells are unchanged
+     * @throws IllegalArgumentException if the number of values is wrong or any value is invalid
+     */
+    public SolveStatus solve(int[] cells) {
+        if (cells.length != SIZE * SIZE) {
+            throw new IllegalArgumentException(String.format("The board should have %d cells", SIZE * SIZE));
+        }
+
+        for (int value : cells) {
+            if (value < 0 || value > SIZE) {
+                throw new IllegalArgumentException(
+                    String.format("The number \"%d\" is not valid as the value of a sudoku block", value));
+            }
+        }
+
+        nodeCount = 0;
+        return load(cells) && search(cells) ? SolveStatus.SOLVED : SolveStatus.UNSOLVABLE;
+    }
+
+    /**
+     * Sets the unit masks from the given values.
+     *
+     * @return false if a unit holds a value twice
+     */
+    abstract boolean load(int[] cells);
+
+    /**
+     * Fills the empty cells, leaving them empty if there is no solution.
+     *
+     * @return true if a solution was found
+     */
+    abstract boolean search(int[] cells);
+}
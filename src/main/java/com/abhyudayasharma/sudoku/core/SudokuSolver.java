@@ -25,37 +25,29 @@
 package com.abhyudayasharma.sudoku.core;
 
 import com.abhyudayasharma.sudoku.SudokuBoard;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import lombok.val;
-import org.apache.commons.lang3.tuple.Pair;
 
 import javax.swing.SwingWorker;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.EmptyStackException;
-import java.util.HashSet;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Set;
-import java.util.Stack;
-import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
-
-import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import java.util.concurrent.CancellationException;
 
 /**
  * <i>Artificial Intelligence</i> for solving a sudoku puzzle.
+ * <p>
+ * The search itself is done by a {@link SolverEngine}; this class publishes its steps so that they can be shown
+ * while the puzzle is being solved.
  *
  * @author Abhyudaya Sharma
  */
 @Slf4j
 public abstract class SudokuSolver extends SwingWorker<Result, AbstractMove> {
-    private static final int sqrt = (int) Math.rint(Math.sqrt(SIZE));
-
     private final int delay;
 
     protected SudokuSolver(SudokuBoard board, int delay) {
         initialBoard = board;
-        matrix = initialBoard.asMatrix();
         if (delay < 0) {
             throw new IllegalArgumentException("Delay should be greater than 0");
         }
@@ -63,24 +55,13 @@ public abstract class SudokuSolver extends SwingWorker<Result, AbstractMove> {
     }
 
     private final SudokuBoard initialBoard;
-    private final int[][] matrix;
-    private final Stack<AssignmentMove> moves = new Stack<>();
+    private final SolverEngine engine = new SolverEngine();
 
     /**
-     * Set of values contained by each row.
-     */
-    private final List<Set<Integer>> rowValues = new ArrayList<>(SIZE);
-    /**
-     * Set of values contained by each column.
+     * Receives every assignment made by the solver so that the solve can be replayed later. May be {@code null}.
      */
-    private final List<Set<Integer>> colValues = new ArrayList<>(SIZE);
-    /**
-     * Set of values contained by the small squares inside the board.
-     * The top left has index 0. The bottom right has index {@link SudokuBoard#SIZE}&nbsp;{@code - 1}.
-     */
-    private final List<Set<Integer>> boxValues = new ArrayList<>(SIZE);
-    private boolean isSolved = false;
-    private int backtrackCount = 0;
+    @Setter
+    private TraceRecorder traceRecorder = null;
 
     @Override
     protected abstract void done();
@@ -91,142 +72,81 @@ public abstract class SudokuSolver extends SwingWorker<Result, AbstractMove> {
     /**
      * Solves a {@link SudokuBoard} and returns a new fully solved one.
      */
-    private Result solve() throws ExecutionException, InterruptedException {
-        if (isSolved) {
-            return get();
-        }
-
-        isSolved = true;
-
+    private Result solve() throws IOException {
         if (!initialBoard.isValid()) {
             throw new IllegalArgumentException("The sudoku board is not valid.");
         }
 
-        initSets();
-        try {
-            for (int i = 0; i < matrix.length; i++) {
-                for (int j = 0; j < matrix.length; j++) {
-                    if (initialBoard.get(i, j).isPresent()) {
-                        continue;
-                    }
-
-                    boolean wasAdded = false;
-                    val oldValue = matrix[i][j];
-                    val boxIndex = getBoxIndex(i, j);
-
-                    for (var cellValue = oldValue + 1; cellValue <= SIZE; cellValue++) {
-                        if (!(rowValues.get(i).contains(cellValue) || colValues.get(j).contains(cellValue) ||
-                                  boxValues.get(boxIndex).contains(cellValue))) {
-                            matrix[i][j] = cellValue;
-                            rowValues.get(i).add(cellValue);
-                            colValues.get(j).add(cellValue);
-                            boxValues.get(boxIndex).add(cellValue);
-                            wasAdded = true;
-                            val move = new AssignmentMove(i, j, oldValue, cellValue);
-                            moves.push(move);
-                            publish(move);
-                            // make it slower
-                            Thread.sleep(delay);
-                            break;
-                        }
+        SolverStrategy.ROW_MAJOR.configure(engine);
+        engine.reset(initialBoard);
+        engine.setMoveListener(new MoveListener() {
+            @Override
+            public void onAssignment(int row, int col, int oldValue, int newValue) {
+                final var move = new AssignmentMove(row, col, oldValue, newValue);
+                if (traceRecorder != null) {
+                    try {
+                        traceRecorder.record(move);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
                     }
-
-                    // go to the previous cell and try to increment the value
-                    if (!wasAdded) {
-                        matrix[i][j] = 0;
-                        val previousCell = backtrack();
-                        var row = previousCell.getLeft();
-                        var col = previousCell.getRight();
-                        val value = matrix[row][col];
-                        publish(new BacktrackingMove(i, j, row, col));
-
-                        // remove values because the incremented value would be set up in the next iteration
-                        rowValues.get(row).remove(value);
-                        colValues.get(col).remove(value);
-                        boxValues.get(getBoxIndex(row, col)).remove(value);
-
-                        // set up i and j to become equal to row and col for the next iteration
-                        i = row;
-                        j = col - 1;
+                }
+                publish(move);
+
+                if (newValue != 0) {
+                    try {
+                        // make it slower
+                        Thread.sleep(delay);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        engine.cancel();
                     }
                 }
             }
-        } catch (EmptyStackException e) {
-            // moves stack becomes empty when there is no possible value to be put in the puzzle
-            // and throws the EmptyStackException. This means that the puzzle is invalid.
-            // for example, consider the puzzle
-            //      1 2 3 4 5 6 7 8 X
-            //      X X X X X X X X 2
-            //      X X X X X X X X 3
-            //      X X X X X X X X 4
-            //      X X X X X X X X 5
-            //      X X X X X X X X 6
-            //      X X X X X X X X 7
-            //      X X X X X X X X 8
-            //      X X X X X X X X 9
-            // taken from https://boards.straightdope.com/sdmb/archive/index.php/t-458783.html which
-            // is valid but not a correct sudoku puzzle.
-            throw new IllegalArgumentException("The entered pattern is not a valid sudoku puzzle.", e);
-        }
 
-        val resultBoard = new SudokuBoard(
-            Arrays.stream(matrix).map(row -> Arrays.stream(row).mapToObj(String::valueOf).collect(Collectors.toUnmodifiableList()))
-                .collect(Collectors.toUnmodifiableList()));
+            @Override
+            public void onBacktrack(int fromRow, int fromCol, int toRow, int toCol) {
+                publish(new BacktrackingMove(fromRow, fromCol, toRow, toCol));
+            }
+        });
+
+        SolveStatus status;
+        try {
+            status = engine.solve();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
 
-        return new Result(resultBoard, backtrackCount);
+        switch (status) {
+            case SOLVED:
+                return new Result(engine.toBoard(), engine.getBacktrackCount(), SolverStrategy.ROW_MAJOR.getName());
+            case CANCELLED:
+                throw new CancellationException("The solver was stopped.");
+            default:
+                // the search runs out of values to try when there is no possible value to be put in the puzzle.
+                // This means that the puzzle is invalid. For example, consider the puzzle
+                //      1 2 3 4 5 6 7 8 X
+                //      X X X X X X X X 2
+                //      X X X X X X X X 3
+                //      X X X X X X X X 4
+                //      X X X X X X X X 5
+                //      X X X X X X X X 6
+                //      X X X X X X X X 7
+                //      X X X X X X X X 8
+                //      X X X X X X X X 9
+                // taken from https://boards.straightdope.com/sdmb/archive/index.php/t-458783.html which
+                // is valid but not a correct sudoku puzzle.
+                throw new IllegalArgumentException("The entered pattern is not a valid sudoku puzzle.");
+        }
     }
 
     /**
-     * Find the cell least recently visited cell whose value can still be increased.
-     * In the process, reset the cells that were visited.
+     * Returns how far the search has got. May be called from any thread, e.g. by a timer on the event dispatch thread.
      *
-     * @return which row and column to iterate from in the next loop, respectively
+     * @return the latest progress of the search
+     * @see SolverEngine#getProgress()
      */
-    private Pair<Integer, Integer> backtrack() {
-        backtrackCount++;
-        var move = moves.pop();
-
-        while (matrix[move.getRow()][move.getCol()] > SIZE) {
-            val row = move.getRow();
-            val col = move.getCol();
-            val value = matrix[row][col];
-
-            rowValues.get(row).remove(value);
-            colValues.get(col).remove(value);
-            boxValues.get(getBoxIndex(row, col)).remove(value);
-            matrix[row][col] = 0;
-            publish(new AssignmentMove(row, col, value, 0));
-
-            move = moves.pop();
-        }
-
-        return Pair.of(move.getRow(), move.getCol());
-    }
-
-    private int getBoxIndex(int row, int col) {
-        val boxRow = row / sqrt;
-        val boxCol = col / sqrt;
-        return boxRow * sqrt + boxCol;
-    }
-
-    private void initSets() {
-        for (int i = 0; i < SIZE; i++) {
-            rowValues.add(new HashSet<>());
-            colValues.add(new HashSet<>());
-            boxValues.add(new HashSet<>());
-        }
-
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix.length; j++) {
-                val row = i;
-                val col = j;
-                initialBoard.get(i, j).ifPresent(x -> {
-                    rowValues.get(row).add(x);
-                    colValues.get(col).add(x);
-                    boxValues.get(getBoxIndex(row, col)).add(x);
-                });
-            }
-        }
+    public SearchProgress getSearchProgress() {
+        return engine.getProgress();
     }
 
     @Override
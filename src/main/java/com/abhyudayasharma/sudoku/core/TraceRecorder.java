@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * Records the assignments made while solving a {@link SudokuBoard} into a compact binary trace that can be
+ * replayed later with {@link SolveTrace}.
+ * <p>
+ * Every assignment is stored as the distance from the previously assigned cell and the new value of the cell.
+ * Because the solver mostly moves to a neighbouring cell, almost every step fits in a single byte. After every
+ * {@code keyframeInterval} steps a full snapshot of the board is written so that a reader can seek to any step
+ * without replaying the whole trace. The offsets of the snapshots are written as an index when the recorder is
+ * closed.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class TraceRecorder implements Closeable {
+    static final int MAGIC = 0x53444b54; // "SDKT"
+    static final int FOOTER_MAGIC = 0x53444b45; // "SDKE"
+    static final int VERSION = 1;
+    static final int CELLS = SIZE * SIZE;
+
+    /**
+     * Tag of a record containing a full snapshot of the board.
+     */
+    static final int KEYFRAME = 0xF0;
+    /**
+     * Tag of a step whose cell delta does not fit in a single byte.
+     */
+    static final int ESCAPE = 0xE0;
+    /**
+     * Tag written after the last step, followed by the keyframe index.
+     */
+    static final int END = 0xF1;
+
+    /**
+     * Smallest and largest cell delta that can be packed into the high nibble of a single byte.
+     * The remaining high nibble values are used by the record tags above.
+     */
+    static final int MIN_PACKED_DELTA = -7;
+    static final int MAX_PACKED_DELTA = 6;
+
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 1024;
+
+    private final DataOutputStream out;
+    private final int keyframeInterval;
+    private final byte[] board = new byte[CELLS];
+
+    private int[] keyframeOffsets = new int[16];
+    private int keyframeCount = 0;
+    private int stepCount = 0;
+    private int previousCell = 0;
+    private boolean closed = false;
+
+    /**
+     * Creates a recorder with {@link TraceRecorder#DEFAULT_KEYFRAME_INTERVAL} steps between snapshots.
+     *
+     * @param out          the stream that the trace is written to. It is closed when the recorder is closed.
+     * @param initialBoard the board before the first step
+     * @throws IOException if the header cannot be written
+     */
+    public TraceRecorder(OutputStream out, SudokuBoard initialBoard) throws IOException {
+        this(out, initialBoard, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    /**
+     * Creates a recorder.
+     *
+     * @param out              the stream that the trace is written to. It is closed when the recorder is closed.
+     * @param initialBoard     the board before the first step
+     * @param keyframeInterval number of steps between two full snapshots of the board
+     * @throws IOException if the header cannot be written
+     */
+    public TraceRecorder(OutputStream out, SudokuBoard initialBoard, int keyframeInterval) throws IOException {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("Keyframe interval should be greater than 0");
+        }
+
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.keyframeInterval = keyframeInterval;
+
+        var matrix = initialBoard.asMatrix();
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                board[i * SIZE + j] = (byte) matrix[i][j];
+            }
+        }
+
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeByte(SIZE);
+        this.out.writeInt(keyframeInterval);
+        writeKeyframe();
+    }
+
+    /**
+     * Records an {@link AssignmentMove}.
+     *
+     * @param move the move to be recorded
+     * @throws IOException if the move cannot be written
+     */
+    public void record(AssignmentMove move) throws IOException {
+        record(move.getRow(), move.getCol(), move.getNewValue());
+    }
+
+    /**
+     * Records that the cell at ({@code row}, {@code col}) was set to {@code value}.
+     *
+     * @param row   the row index of the cell
+     * @param col   the column index of the cell
+     * @param value the new value of the cell, {@code 0} if the cell was cleared
+     * @throws IOException if the step cannot be written
+     */
+    public void record(int row, int col, int value) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The trace recorder has been closed");
+        }
+
+        final var cell = row * SIZE + col;
+        final var delta = cell - previousCell;
+        if (delta >= MIN_PACKED_DELTA && delta <= MAX_PACKED_DELTA) {
+            out.writeByte(((delta - MIN_PACKED_DELTA) << 4) | value);
+        } else {
+            out.writeByte(ESCAPE | value);
+            out.writeByte(cell);
+        }
+
+        board[cell] = (byte) value;
+        previousCell = cell;
+        stepCount++;
+
+        if (stepCount % keyframeInterval == 0) {
+            writeKeyframe();
+        }
+    }
+
+    /**
+     * Returns the number of steps recorded so far.
+     *
+     * @return the number of recorded steps
+     */
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    private void writeKeyframe() throws IOException {
+        if (keyframeCount == keyframeOffsets.length) {
+            keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframeCount * 2);
+        }
+
+        keyframeOffsets[keyframeCount++] = out.size();
+        out.writeByte(KEYFRAME);
+        out.write(board);
+        // deltas restart from the first cell so that a reader can start decoding at any keyframe
+        previousCell = 0;
+    }
+
+    /**
+     * Writes the keyframe index and closes the underlying stream.
+     *
+     * @throws IOException if the index cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        try {
+            final var indexOffset = out.size();
+            out.writeByte(END);
+            out.writeInt(keyframeCount);
+            for (int i = 0; i < keyframeCount; i++) {
+                out.writeInt(keyframeOffsets[i]);
+            }
+            out.writeInt(indexOffset);
+            out.writeInt(stepCount);
+            out.writeInt(FOOTER_MAGIC);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import lombok.Getter;
+
+/**
+ * A bounded cache of the number of solutions below board states that have been searched completely, keyed by the
+ * Zobrist hash kept by {@link SolverEngine}.
+ * <p>
+ * The number of solutions of a board state only depends on which cells are filled and which values every unit
+ * already uses, not on how the search got there, so a table can be shared by many counts. This pays off when related
+ * puzzles, which search many of the same states, are counted one after another with the same table. The counts are
+ * only valid for a single {@link ConstraintModel}, so a table must not be shared by engines for different variants.
+ * <p>
+ * Each hash has a single slot, and a new entry always replaces the old one. A table is not thread-safe.
+ *
+ * @author Abhyudaya Sharma
+ */
+public class TranspositionTable {
+    /**
+     * The hash and the count of every entry next to each other, so a lookup touches a single cache line.
+     */
+    private final long[] entries;
+    private final int mask;
+
+    @Getter
+    private long lookupCount = 0;
+    @Getter
+    private long hitCount = 0;
+    @Getter
+    private long storeCount = 0;
+
+    /**
+     * Creates an empty table.
+     *
+     * @param capacity the number of entries, rounded up to a power of two
+     * @throws IllegalArgumentException if the capacity is not positive or too large
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity < 1 || capacity > 1 << 29) {
+            throw new IllegalArgumentException("The capacity should be between 1 and 2^29");
+        }
+
+        final var size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        entries = new long[2 * size];
+        mask = size - 1;
+        clear();
+    }
+
+    /**
+     * Looks up the number of solutions below a board state.
+     *
+     * @param hash the Zobrist hash of the board state
+     * @return the number of solutions, or {@code -1} if the state is not in the table
+     */
+    long get(long hash) {
+        lookupCount++;
+        final var slot = 2 * ((int) hash & mask);
+        if (entries[slot] != hash || entries[slot + 1] < 0) {
+            return -1;
+        }
+
+        hitCount++;
+        return entries[slot + 1];
+    }
+
+    /**
+     * Records the number of solutions below a board state that has been searched completely.
+     *
+     * @param hash  the Zobrist hash of the board state
+     * @param count the number of solutions
+     */
+    void put(long hash, long count) {
+        final var slot = 2 * ((int) hash & mask);
+        entries[slot] = hash;
+        entries[slot + 1] = count;
+        storeCount++;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        // -1 marks empty slots, since 0 is the count of a dead end
+        for (int slot = 1; slot < entries.length; slot += 2) {
+            entries[slot] = -1;
+        }
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+}
@@ -30,16 +30,20 @@ import com.abhyudayasharma.sudoku.SudokuBoard;
 import javax.swing.BorderFactory;
 import javax.swing.JTable;
 import javax.swing.ListSelectionModel;
-import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.TableCellEditor;
 import javax.swing.table.TableCellRenderer;
 import java.awt.Color;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 public class SudokuTable extends JTable {
     private static final int CELL_SIZE = 60;
 
-    private static final DefaultTableCellRenderer defaultRenderer = new SudokuTableCellRenderer();
+    private static final TableCellRenderer defaultRenderer = new SudokuTableCellRenderer();
+
+    private final List<Runnable> editListeners = new ArrayList<>();
 
     @Override
     public SudokuTableModel getModel() {
@@ -75,6 +79,26 @@ public class SudokuTable extends JTable {
         return getModel().asBoard();
     }
 
+    /**
+     * Adds a listener that is run whenever the board changes while it is editable, i.e. when the user changes a cell
+     * or a new editable board is loaded.
+     *
+     * @param listener the listener to run on the event dispatch thread
+     */
+    public void addEditListener(Runnable listener) {
+        editListeners.add(listener);
+    }
+
+    @Override
+    public void tableChanged(TableModelEvent e) {
+        super.tableChanged(e);
+
+        // the listeners do not exist yet while the constructor of JTable sets the first model
+        if (editListeners != null && getModel().isEditable()) {
+            editListeners.forEach(Runnable::run);
+        }
+    }
+
     private void setColumnCellEditors() {
         for (var it = columnModel.getColumns().asIterator(); it.hasNext(); ) {
             var column = it.next();
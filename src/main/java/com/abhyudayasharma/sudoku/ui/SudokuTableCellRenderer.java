@@ -26,46 +26,139 @@ package com.abhyudayasharma.sudoku.ui;
 
 import com.abhyudayasharma.sudoku.SudokuBoard;
 
-import javax.swing.BorderFactory;
 import javax.swing.JComponent;
 import javax.swing.JTable;
-import javax.swing.SwingConstants;
-import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.UIManager;
+import javax.swing.table.TableCellRenderer;
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paints the cells of a {@link SudokuTable}.
+ * <p>
+ * The digits are rasterised once for every font, display scale and colour into images, which are then copied into
+ * the cells instead of laying out and drawing the text of every cell on every repaint. The component paints itself,
+ * including the focus border of the look and feel, without setting borders or other properties, so that rendering a
+ * cell only sets a few fields. Only used on the event dispatch thread.
+ */
+public class SudokuTableCellRenderer extends JComponent implements TableCellRenderer {
+    private static final int BORDER_THICKNESS = 3;
 
-public class SudokuTableCellRenderer extends DefaultTableCellRenderer {
     private final int sqrt = (int) Math.rint(Math.sqrt(SudokuBoard.SIZE));
     private final Color borderColor = Color.BLACK;
+    /**
+     * The images of the digits {@code 1} to {@link SudokuBoard#SIZE} by their font, horizontal and vertical scale and
+     * colour, at the index of the digit minus one.
+     */
+    private final Map<List<Object>, BufferedImage[]> glyphs = new HashMap<>();
+
+    private String text = "";
+    private Font cellFont = null;
+    private Color cellForeground = null;
+    private Color cellBackground = null;
+    private int row = 0;
+    private int column = 0;
+    private boolean focused = false;
+
+    public SudokuTableCellRenderer() {
+        setOpaque(true);
+    }
 
     @Override
     public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
                                                    boolean hasFocus, int row, int column) {
-        final var component = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-        var border = BorderFactory.createEmptyBorder();
+        this.text = value == null ? "" : value.toString();
+        this.row = row;
+        this.column = column;
+        focused = hasFocus;
+        cellFont = table.getFont();
+        cellForeground = isSelected ? table.getSelectionForeground() : table.getForeground();
+        cellBackground = isSelected ? table.getSelectionBackground() : table.getBackground();
+        return this;
+    }
 
-        final var borderThickness = 3;
-        if (row % sqrt == sqrt - 1 && row != SudokuBoard.SIZE - 1) {
-            border = BorderFactory.createCompoundBorder(border,
-                BorderFactory.createMatteBorder(0, 0, borderThickness, 0, borderColor));
+    @Override
+    protected void paintComponent(Graphics g) {
+        final var width = getWidth();
+        final var height = getHeight();
+        g.setColor(cellBackground);
+        g.fillRect(0, 0, width, height);
+
+        if (!text.isEmpty()) {
+            paintText((Graphics2D) g, width, height);
         }
 
+        g.setColor(borderColor);
+        if (row % sqrt == sqrt - 1 && row != SudokuBoard.SIZE - 1) {
+            g.fillRect(0, height - BORDER_THICKNESS, width, BORDER_THICKNESS);
+        }
         if (column % sqrt == sqrt - 1 && column != SudokuBoard.SIZE - 1) {
-            border = BorderFactory.createCompoundBorder(border,
-                BorderFactory.createMatteBorder(0, 0, 0, borderThickness, borderColor));
+            g.fillRect(width - BORDER_THICKNESS, 0, BORDER_THICKNESS, height);
+        }
+
+        if (focused) {
+            final var focusBorder = UIManager.getBorder("Table.focusCellHighlightBorder");
+            if (focusBorder != null) {
+                focusBorder.paintBorder(this, g, 0, 0, width, height);
+            }
         }
+    }
 
-        if (component instanceof JComponent) {
-            ((JComponent) component).setBorder(border);
-        } else {
-            throw new IllegalArgumentException("component should be a JComponent");
+    private void paintText(Graphics2D g, int width, int height) {
+        final var metrics = getFontMetrics(cellFont);
+        final var textHeight = metrics.getAscent() + metrics.getDescent();
+        final var digit = text.length() == 1 ? Character.digit(text.charAt(0), 10) : -1;
+        if (digit < 1 || digit > SudokuBoard.SIZE) {
+            // anything else is drawn as it is
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(cellFont);
+            g.setColor(cellForeground);
+            g.drawString(text, (width - metrics.stringWidth(text)) / 2,
+                (height - textHeight) / 2 + metrics.getAscent());
+            return;
         }
 
-        return component;
+        final var transform = g.getTransform();
+        final var scaleX = transform.getScaleX();
+        final var scaleY = transform.getScaleY();
+        final var image = glyphs.computeIfAbsent(List.of(cellFont, scaleX, scaleY, cellForeground),
+            key -> rasterise(scaleX, scaleY))[digit - 1];
+
+        // the image has one pixel for every pixel of the device, so it is drawn without scaling
+        g.translate((width - metrics.charWidth(text.charAt(0))) / 2, (height - textHeight) / 2);
+        g.scale(1 / scaleX, 1 / scaleY);
+        g.drawImage(image, 0, 0, null);
+        g.setTransform(transform);
     }
 
-    @Override
-    public int getHorizontalAlignment() {
-        return SwingConstants.CENTER;
+    private BufferedImage[] rasterise(double scaleX, double scaleY) {
+        final var metrics = getFontMetrics(cellFont);
+        final var height = (int) Math.ceil((metrics.getAscent() + metrics.getDescent()) * scaleY);
+        final var images = new BufferedImage[SudokuBoard.SIZE];
+        for (int digit = 1; digit <= SudokuBoard.SIZE; digit++) {
+            final var glyph = String.valueOf(digit);
+            final var width = (int) Math.ceil(metrics.stringWidth(glyph) * scaleX);
+            final var image = new BufferedImage(Math.max(width, 1), Math.max(height, 1), BufferedImage.TYPE_INT_ARGB);
+            final var g = image.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                g.scale(scaleX, scaleY);
+                g.setFont(cellFont);
+                g.setColor(cellForeground);
+                g.drawString(glyph, 0, metrics.getAscent());
+            } finally {
+                g.dispose();
+            }
+            images[digit - 1] = image;
+        }
+        return images;
     }
 }
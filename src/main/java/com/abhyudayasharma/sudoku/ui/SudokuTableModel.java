@@ -106,8 +106,13 @@ public class SudokuTableModel implements TableModel {
         if (!(o instanceof String)) {
             throw new IllegalArgumentException("The object passed should be a String");
         }
-        data.get(row).set(col, (String) o);
-        listeners.forEach(listener -> listener.tableChanged(new TableModelEvent(this, row)));
+        // an animated solve assigns and clears the same cells many times
+        if (data.get(row).set(col, (String) o).equals(o)) {
+            return;
+        }
+        // naming the column makes the table repaint only the changed cell instead of the whole row
+        final var event = new TableModelEvent(this, row, row, col);
+        listeners.forEach(listener -> listener.tableChanged(event));
     }
 
     @Override
@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeadlessSolverTest {
+    private static final String PUZZLE =
+        "003020600900305001001806400008102900700000008006708200002609500800203009005010300";
+    private static final String SOLUTION =
+        "483921657967345821251876493548132976729564138136798245372689514814253769695417382";
+
+    @Test
+    void solveTest() throws Exception {
+        var input = "# comment\n" + PUZZLE + "\n\n" + "11" + PUZZLE.substring(2) + "\n" + "123\n";
+        var out = new ByteArrayOutputStream();
+        var exitCode = HeadlessSolver.run(new String[]{"--order", "row"},
+            new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+            new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(new ByteArrayOutputStream()));
+
+        assertEquals(1, exitCode);
+        assertEquals(SOLUTION + "\nunsolvable\ninvalid\n", out.toString(StandardCharsets.UTF_8).replace("\r", ""));
+    }
+
+    @Test
+    void checkpointTest() throws Exception {
+        var directory = Files.createTempDirectory("checkpoint");
+        var input = directory.resolve("puzzles.txt");
+        var output = directory.resolve("solutions.txt");
+        var checkpoint = directory.resolve("checkpoint");
+        Files.writeString(input, PUZZLE + "\n123\n" + PUZZLE + "\n" + PUZZLE + "\n");
+        var args = new String[]{"--output", output.toString(), "--checkpoint", checkpoint.toString(), input.toString()};
+
+        assertEquals(1, run(args));
+        var expected = Files.readString(output);
+        assertEquals(SOLUTION + System.lineSeparator() + "invalid" + System.lineSeparator(),
+            expected.substring(0, SOLUTION.length() + 2 * System.lineSeparator().length() + "invalid".length()));
+
+        // killed after the first line was checkpointed, with part of the next solution written
+        var offset = SOLUTION.length() + System.lineSeparator().length();
+        new BatchCheckpoint(input.toString(), 0, 1, offset, 1, 0).write(checkpoint);
+        Files.writeString(output, expected.substring(0, offset) + "inva");
+        assertEquals(1, run(args));
+        assertEquals(expected, Files.readString(output));
+
+        // a finished run does not solve anything again
+        assertEquals(1, run(args));
+        assertEquals(expected, Files.readString(output));
+
+        assertEquals(2, run(new String[]{"--output", output.toString(), "--checkpoint", checkpoint.toString()}));
+        assertEquals(2, run(new String[]{"--checkpoint", checkpoint.toString(), input.toString()}));
+    }
+
+    @Test
+    void cacheTest() throws Exception {
+        var cache = Files.createTempDirectory("cache").resolve("solutions");
+        var input = PUZZLE + "\n" + "11" + PUZZLE.substring(2) + "\n";
+        for (var cachedPuzzles = 0; cachedPuzzles <= 2; cachedPuzzles += 2) {
+            var out = new ByteArrayOutputStream();
+            var err = new ByteArrayOutputStream();
+            var exitCode = HeadlessSolver.run(new String[]{"--cache", cache.toString(), "--stats"},
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+
+            assertEquals(1, exitCode);
+            assertEquals(SOLUTION + "\nunsolvable\n", out.toString(StandardCharsets.UTF_8).replace("\r", ""));
+            assertTrue(err.toString(StandardCharsets.UTF_8).contains("Answered " + cachedPuzzles + " puzzles"));
+        }
+    }
+
+    private static int run(String[] args) throws Exception {
+        return HeadlessSolver.run(args, new ByteArrayInputStream(new byte[0]),
+            new PrintStream(new ByteArrayOutputStream()), new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void usageTest() throws Exception {
+        var exitCode = HeadlessSolver.run(new String[]{"--order"}, new ByteArrayInputStream(new byte[0]),
+            new PrintStream(new ByteArrayOutputStream()), new PrintStream(new ByteArrayOutputStream()));
+        assertEquals(2, exitCode);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+
+/**
+ * The puzzles in {@code puzzles.txt}, shared by the tests and the benchmarks.
+ */
+public class PuzzleCorpus {
+    private PuzzleCorpus() {
+    }
+
+    /**
+     * Reads the corpus.
+     *
+     * @return the values of every puzzle in row-major order
+     * @throws IOException if the corpus cannot be read
+     */
+    public static int[][] load() throws IOException {
+        var puzzles = new ArrayList<int[]>();
+        try (var reader = new BufferedReader(new InputStreamReader(
+            PuzzleCorpus.class.getResourceAsStream("puzzles.txt"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    var cells = new int[SIZE * SIZE];
+                    SudokuBoard.parse(line.strip()).copyTo(cells);
+                    puzzles.add(cells);
+                }
+            }
+        }
+        return puzzles.toArray(int[][]::new);
+    }
+
+    /**
+     * A valid puzzle whose last cell has no possible value, which a row-major search only finds out after filling the
+     * rest of the board.
+     *
+     * @return the values of the puzzle in row-major order
+     */
+    public static int[] endlessPuzzle() {
+        var puzzle = new int[SIZE * SIZE];
+        for (int i = 0; i < SIZE - 1; i++) {
+            puzzle[(SIZE - 1) * SIZE + i] = i + 1;
+        }
+        puzzle[SIZE - 1] = SIZE;
+        return puzzle;
+    }
+
+    /**
+     * A valid puzzle whose last cell of the first row has no possible value.
+     *
+     * @return the values of the puzzle in row-major order
+     */
+    public static int[] unsolvablePuzzle() {
+        var puzzle = new int[SIZE * SIZE];
+        for (int i = 0; i < SIZE - 1; i++) {
+            puzzle[i] = i + 1;
+            puzzle[(i + 1) * SIZE + SIZE - 1] = i + 2;
+        }
+        return puzzle;
+    }
+}
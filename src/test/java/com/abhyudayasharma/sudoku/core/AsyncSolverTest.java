@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncSolverTest {
+    @Test
+    void solveAllTest() throws Exception {
+        var boards = new ArrayList<SudokuBoard>();
+        for (var puzzle : PuzzleCorpus.load()) {
+            boards.add(SudokuBoard.of(puzzle));
+        }
+
+        try (var solver = new AsyncSolver()) {
+            var futures = solver.solveAll(boards);
+            assertEquals(boards.size(), futures.size());
+            for (var future : futures) {
+                var result = future.get(10, TimeUnit.SECONDS);
+                assertTrue(result.getBoard().isValid());
+                assertEquals(SolverStrategy.MIN_REMAINING_VALUES.getName(), result.getStrategy());
+            }
+
+            var unsolvable = PuzzleCorpus.unsolvablePuzzle();
+            var e = assertThrows(ExecutionException.class, () -> solver.solve(SudokuBoard.of(unsolvable)).get());
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    void largeBatchTest() throws Exception {
+        var boards = new ArrayList<SudokuBoard>();
+        for (int i = 0; i < 10; i++) {
+            for (var puzzle : PuzzleCorpus.load()) {
+                boards.add(SudokuBoard.of(puzzle));
+            }
+        }
+
+        // far more boards than the queue holds
+        try (var solver = new AsyncSolver(ConstraintModel.CLASSIC, SolverStrategy.MIN_REMAINING_VALUES, 2, 4,
+            AsyncSolver.RejectionPolicy.FAIL)) {
+            for (var future : solver.solveAll(boards)) {
+                assertTrue(future.get(10, TimeUnit.SECONDS).getBoard().isValid());
+            }
+        }
+    }
+
+    @Test
+    void cancelTest() throws Exception {
+        try (var solver = new AsyncSolver(ConstraintModel.CLASSIC, SolverStrategy.ROW_MAJOR, 1, 1,
+            AsyncSolver.RejectionPolicy.FAIL)) {
+            var puzzle = PuzzleCorpus.endlessPuzzle();
+
+            var endless = solver.solve(SudokuBoard.of(puzzle));
+            Thread.sleep(100);
+            assertTrue(endless.cancel(true));
+
+            // the only thread is free again
+            var result = solver.solve(SudokuBoard.of(PuzzleCorpus.load()[0])).get(10, TimeUnit.SECONDS);
+            assertTrue(result.getBoard().isValid());
+        }
+    }
+
+    @Test
+    void closeTest() throws Exception {
+        var solver = new AsyncSolver(ConstraintModel.CLASSIC, SolverStrategy.ROW_MAJOR, 1, 1,
+            AsyncSolver.RejectionPolicy.FAIL);
+        var puzzle = PuzzleCorpus.endlessPuzzle();
+
+        var running = solver.solve(SudokuBoard.of(puzzle));
+        var waiting = solver.solve(SudokuBoard.of(PuzzleCorpus.load()[0]));
+        Thread.sleep(100);
+        solver.close();
+        assertTrue(running.isCancelled());
+        assertTrue(waiting.isCancelled());
+    }
+
+    @Test
+    void rejectionTest() throws Exception {
+        var executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        var latch = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            var solver = new AsyncSolver(ConstraintModel.CLASSIC, SolverStrategy.MIN_REMAINING_VALUES, executor);
+            var board = SudokuBoard.of(PuzzleCorpus.load()[0]);
+            var queued = solver.solve(board);
+            var rejected = solver.solve(board);
+            var e = assertThrows(ExecutionException.class, rejected::get);
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+
+            latch.countDown();
+            assertTrue(queued.get(10, TimeUnit.SECONDS).getBoard().isValid());
+        } finally {
+            latch.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
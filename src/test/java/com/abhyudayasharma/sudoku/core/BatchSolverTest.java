@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import org.junit.jupiter.api.Test;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchSolverTest {
+    private static final int CELLS = SIZE * SIZE;
+
+    @Test
+    void solveAllTest() throws Exception {
+        var corpus = PuzzleCorpus.load();
+        var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        var solutions = new int[corpus.length][CELLS];
+        for (int i = 0; i < corpus.length; i++) {
+            engine.reset(corpus[i]);
+            assertEquals(SolveStatus.SOLVED, engine.solve());
+            engine.copyCells(solutions[i]);
+        }
+
+        // more than one block of lanes, the last one partly used, mixing easy, hard and unsolvable puzzles
+        var boards = 2 * BatchSolver.LANES + 7;
+        var puzzles = new byte[boards * CELLS];
+        for (int board = 0; board < boards; board++) {
+            var puzzle = corpus[board % corpus.length];
+            var solution = solutions[board % corpus.length];
+            for (int cell = 0; cell < CELLS; cell++) {
+                // every other board reveals every third cell of the solution, which leaves only singles
+                var reveal = board % 2 == 0 && cell % 3 == 0;
+                puzzles[board * CELLS + cell] = (byte) (reveal ? solution[cell] : puzzle[cell]);
+            }
+        }
+        for (int board = 3; board < boards; board += 10) {
+            puzzles[board * CELLS] = puzzles[board * CELLS + 1] = 1;
+        }
+
+        var answers = new byte[puzzles.length];
+        var statuses = new BatchSolver().solveAll(puzzles, answers);
+        var verified = new SolutionVerifier().verifyAll(puzzles, answers);
+        for (int board = 0; board < boards; board++) {
+            var unsolvable = board % 10 == 3;
+            assertEquals(unsolvable ? SolveStatus.UNSOLVABLE : SolveStatus.SOLVED, statuses[board]);
+            if (!unsolvable) {
+                assertEquals(SolutionVerifier.Status.VALID, verified[board]);
+            }
+        }
+    }
+
+    @Test
+    void killerTest() throws Exception {
+        var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        engine.reset(PuzzleCorpus.load()[0]);
+        assertEquals(SolveStatus.SOLVED, engine.solve());
+        var solution = new int[CELLS];
+        engine.copyCells(solution);
+
+        // the first two cells are left to the propagation, which fills them from their row
+        var puzzles = new byte[CELLS];
+        for (int cell = 2; cell < CELLS; cell++) {
+            puzzles[cell] = (byte) solution[cell];
+        }
+        var model = ConstraintModel.builder("killer").rows().columns().boxes()
+            .cage(solution[0] + solution[1], 0, 1).build();
+        assertArrayEquals(new SolveStatus[]{SolveStatus.SOLVED},
+            new BatchSolver(model).solveAll(puzzles, new byte[CELLS]));
+
+        // a cage over two cells that hold the same value in different rows, columns and boxes, whose sum adds up
+        var first = 0;
+        var second = 4 * SIZE;
+        while (solution[second] != solution[first]) {
+            second++;
+        }
+        var repeated = ConstraintModel.builder("killer").rows().columns().boxes()
+            .cage(solution[first] + solution[second], first, second).build();
+        assertArrayEquals(new SolveStatus[]{SolveStatus.UNSOLVABLE},
+            new BatchSolver(repeated).solveAll(puzzles, new byte[CELLS]));
+    }
+
+    @Test
+    void invalidTest() {
+        var solver = new BatchSolver();
+        assertThrows(IllegalArgumentException.class, () -> solver.solveAll(new byte[CELLS], new byte[2 * CELLS]));
+        assertThrows(IllegalArgumentException.class, () -> solver.solveAll(new byte[SIZE], new byte[SIZE]));
+
+        var puzzles = new byte[CELLS];
+        puzzles[0] = SIZE + 1;
+        assertThrows(IllegalArgumentException.class, () -> solver.solveAll(puzzles, new byte[CELLS]));
+        assertArrayEquals(new SolveStatus[0], solver.solveAll(new byte[0], new byte[0]));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import org.junit.jupiter.api.Test;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConstraintModelTest {
+    private static final int CELLS = SIZE * SIZE;
+
+    @Test
+    void peerTest() {
+        var classic = ConstraintModel.CLASSIC;
+        assertEquals(3 * SIZE, classic.getUnitCount());
+        for (int cell = 0; cell < CELLS; cell++) {
+            assertEquals(20, classic.peerStart[cell + 1] - classic.peerStart[cell]);
+        }
+
+        // the centre cell is on both diagonals, which add 12 cells outside its box
+        var centre = CELLS / 2;
+        var diagonal = ConstraintModel.DIAGONAL;
+        assertEquals(3 * SIZE + 2, diagonal.getUnitCount());
+        assertEquals(20 + 12, diagonal.peerStart[centre + 1] - diagonal.peerStart[centre]);
+        assertEquals(3 * SIZE + 4, ConstraintModel.HYPER.getUnitCount());
+    }
+
+    @Test
+    void solveVariantsTest() {
+        // cell (r, c) is in region (r + c) % SIZE
+        var regions = new int[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            regions[cell] = (cell / SIZE + cell % SIZE) % SIZE;
+        }
+
+        var models = new ConstraintModel[]{ConstraintModel.CLASSIC, ConstraintModel.DIAGONAL, ConstraintModel.HYPER,
+            ConstraintModel.jigsaw(regions)};
+        for (var model : models) {
+            var engine = new SolverEngine(model);
+            engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+            engine.reset(new int[CELLS]);
+            assertEquals(SolveStatus.SOLVED, engine.solve());
+            assertTrue(engine.toBoard().isValid(model));
+        }
+
+        // the first solution of an empty classic board repeats values on its diagonals
+        var engine = new SolverEngine();
+        engine.reset(new int[CELLS]);
+        engine.solve();
+        var board = engine.toBoard();
+        assertTrue(board.isValid(ConstraintModel.CLASSIC));
+        assertFalse(board.isValid(ConstraintModel.DIAGONAL));
+    }
+
+    @Test
+    void cageTableTest() {
+        assertEquals(0b11, CageTable.allowed(2, 3, 0));
+        assertEquals(0b110000000, CageTable.allowed(2, 17, 0));
+        assertEquals(0b110, CageTable.allowed(2, 5, 0b1));
+        assertEquals(0b1000, CageTable.allowed(1, 4, 0b11));
+        assertEquals(0, CageTable.allowed(1, 4, 0b1000));
+        assertEquals(0, CageTable.allowed(3, 5, 0));
+    }
+
+    @Test
+    void killerTest() throws Exception {
+        var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        engine.reset(PuzzleCorpus.load()[0]);
+        engine.solve();
+        var solution = new int[CELLS];
+        engine.copyCells(solution);
+
+        // cut every row of the solution into cages of three cells
+        var builder = ConstraintModel.builder("killer").rows().columns().boxes();
+        for (int cell = 0; cell < CELLS; cell += 3) {
+            builder.cage(solution[cell] + solution[cell + 1] + solution[cell + 2], cell, cell + 1, cell + 2);
+        }
+        var killer = builder.build();
+        assertEquals(CELLS / 3, killer.getCageCount());
+        assertTrue(killer.isConsistent(solution));
+
+        var killerEngine = new SolverEngine(killer);
+        killerEngine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        killerEngine.reset(new int[CELLS]);
+        assertEquals(SolveStatus.SOLVED, killerEngine.solve());
+        var cells = new int[CELLS];
+        killerEngine.copyCells(cells);
+        assertTrue(killer.isConsistent(cells));
+
+        // a cage whose sum cannot be reached any more
+        cells[0] = 0;
+        cells[1] = 0;
+        cells[2] = SIZE;
+        cells[3] = 0;
+        assertFalse(ConstraintModel.builder("killer").rows().cage(10, 0, 1, 2).build().isConsistent(cells));
+        assertThrows(IllegalArgumentException.class, () -> ConstraintModel.builder("killer").cage(2, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> ConstraintModel.builder("killer").rows().cage(3, 0, 1).cage(4, 1).build());
+    }
+
+    @Test
+    void invalidRegionsTest() {
+        var regions = new int[CELLS];
+        assertThrows(IllegalArgumentException.class, () -> ConstraintModel.jigsaw(regions));
+        assertThrows(IllegalArgumentException.class, () -> ConstraintModel.jigsaw(new int[SIZE]));
+    }
+}
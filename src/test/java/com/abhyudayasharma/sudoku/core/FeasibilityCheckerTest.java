@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeasibilityCheckerTest {
+    @Test
+    void checkTest() throws Exception {
+        var unsolvable = PuzzleCorpus.unsolvablePuzzle();
+
+        try (var checker = new FeasibilityChecker()) {
+            assertEquals(Feasibility.UNIQUE, check(checker, PuzzleCorpus.load()[0]));
+            assertEquals(Feasibility.MULTIPLE_SOLUTIONS, check(checker, new int[SIZE * SIZE]));
+            assertEquals(Feasibility.UNSOLVABLE, check(checker, unsolvable));
+
+            // only the latest board matters
+            var stale = checker.check(SudokuBoard.of(new int[SIZE * SIZE]));
+            var latest = checker.check(SudokuBoard.of(unsolvable));
+            assertEquals(Feasibility.UNSOLVABLE, latest.get(1, TimeUnit.SECONDS));
+            assertTrue(stale.isDone());
+        }
+    }
+
+    private static Feasibility check(FeasibilityChecker checker, int[] cells) throws Exception {
+        return checker.check(SudokuBoard.of(cells)).get(1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import org.junit.jupiter.api.Test;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HardnessEstimatorTest {
+    @Test
+    void estimateTest() throws Exception {
+        var estimator = new HardnessEstimator();
+        var engine = new SolverEngine(ConstraintModel.CLASSIC);
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+
+        var hard = 0;
+        for (var puzzle : PuzzleCorpus.load()) {
+            var hardness = estimator.estimate(puzzle);
+            engine.reset(puzzle);
+            assertEquals(SolveStatus.SOLVED, engine.solve());
+
+            var clues = 0;
+            for (var value : puzzle) {
+                clues += value == 0 ? 0 : 1;
+            }
+            assertEquals(clues, hardness.getClues());
+            assertTrue(hardness.getEmptyAfterPropagation() <= SIZE * SIZE - clues);
+
+            if (hardness.isExact()) {
+                assertEquals(engine.getNodeCount(), hardness.getPredictedNodes());
+            } else {
+                hard++;
+                assertTrue(engine.getNodeCount() > HardnessEstimator.PROBE_NODES);
+                assertTrue(hardness.getPredictedNodes() >= HardnessEstimator.PROBE_NODES);
+            }
+        }
+
+        assertTrue(hard > 0, "the corpus should have puzzles which the probe does not finish");
+
+        // the empty board is solved without a backtrack, but leaves the whole search space after propagation
+        var empty = estimator.estimate(new int[SIZE * SIZE]);
+        assertTrue(empty.isExact());
+        assertEquals(SIZE * SIZE, empty.getEmptyAfterPropagation());
+        assertTrue(empty.getSearchBits() > 0);
+    }
+
+    @Test
+    void invalidTest() {
+        var estimator = new HardnessEstimator();
+        assertThrows(IllegalArgumentException.class, () -> estimator.estimate(new int[SIZE]));
+        var values = new int[SIZE * SIZE];
+        values[0] = SIZE + 1;
+        assertThrows(IllegalArgumentException.class, () -> estimator.estimate(values));
+    }
+}
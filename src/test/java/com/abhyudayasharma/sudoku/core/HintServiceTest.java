@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HintServiceTest {
+    @Test
+    void hintTest() throws Exception {
+        var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        var solution = new int[SIZE * SIZE];
+
+        try (var service = new HintService()) {
+            for (var puzzle : PuzzleCorpus.load()) {
+                engine.reset(puzzle);
+                engine.solve();
+                engine.copyCells(solution);
+
+                var board = SudokuBoard.of(puzzle);
+                service.boardChanged(board);
+                var hint = service.hint(board).get(10, TimeUnit.SECONDS).orElseThrow();
+                var cell = hint.getRow() * SIZE + hint.getCol();
+                assertEquals(0, puzzle[cell]);
+                assertEquals(solution[cell], hint.getValue());
+
+                // asking again is answered from the cache
+                assertSame(service.hint(board), service.hint(board));
+            }
+        }
+    }
+
+    @Test
+    void noHintTest() throws Exception {
+        var puzzle = PuzzleCorpus.unsolvablePuzzle();
+
+        try (var service = new HintService()) {
+            assertTrue(service.hint(SudokuBoard.of(puzzle)).get(10, TimeUnit.SECONDS).isEmpty());
+        }
+    }
+}
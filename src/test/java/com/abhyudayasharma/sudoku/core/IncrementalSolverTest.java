@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import org.junit.jupiter.api.Test;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalSolverTest {
+    private static final int CELLS = SIZE * SIZE;
+
+    @Test
+    void reuseTest() throws Exception {
+        var puzzle = PuzzleCorpus.load()[0];
+        var solver = new IncrementalSolver();
+        assertEquals(SolveStatus.SOLVED, solver.solve(SudokuBoard.of(puzzle)));
+        assertEquals(IncrementalSolver.Repair.FULL, solver.getLastRepair());
+        var solution = new int[CELLS];
+        solver.copyCells(solution);
+
+        var empty = 0;
+        while (puzzle[empty] != 0) {
+            empty++;
+        }
+        var given = 0;
+        while (puzzle[given] == 0) {
+            given++;
+        }
+
+        // giving a cell its value in the solution or removing a given keeps the solution
+        assertEquals(SolveStatus.SOLVED, solver.edit(empty / SIZE, empty % SIZE, solution[empty]));
+        assertEquals(IncrementalSolver.Repair.REUSED, solver.getLastRepair());
+        assertEquals(SolveStatus.SOLVED, solver.edit(given / SIZE, given % SIZE, 0));
+        assertEquals(IncrementalSolver.Repair.REUSED, solver.getLastRepair());
+        assertArrayEquals(solution, toArray(solver));
+    }
+
+    @Test
+    void repairTest() throws Exception {
+        var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        engine.reset(PuzzleCorpus.load()[1]);
+        assertEquals(SolveStatus.SOLVED, engine.solve());
+        var full = new int[CELLS];
+        engine.copyCells(full);
+
+        // a sparse board with many solutions, like one that is still being entered
+        var puzzle = new int[CELLS];
+        for (int cell = 0; cell < CELLS; cell += 4) {
+            puzzle[cell] = full[cell];
+        }
+
+        var solver = new IncrementalSolver();
+        assertEquals(SolveStatus.SOLVED, solver.solve(puzzle));
+        var local = 0;
+        for (int cell = 1; cell < CELLS; cell += 4) {
+            var solution = toArray(solver);
+            // a value that differs from the current solution but does not clash with a given
+            for (int value = 1; value <= SIZE; value++) {
+                puzzle[cell] = value;
+                if (value != solution[cell] && SudokuBoard.of(puzzle).isValid()) {
+                    break;
+                }
+            }
+
+            var status = solver.edit(cell / SIZE, cell % SIZE, puzzle[cell]);
+            engine.reset(puzzle);
+            assertEquals(engine.solve(), status);
+            if (status == SolveStatus.SOLVED) {
+                local += solver.getLastRepair() == IncrementalSolver.Repair.LOCAL ? 1 : 0;
+                solution = toArray(solver);
+                assertTrue(SudokuBoard.of(solution).isValid());
+                for (int i = 0; i < CELLS; i++) {
+                    assertTrue(solution[i] != 0 && (puzzle[i] == 0 || puzzle[i] == solution[i]));
+                }
+            } else {
+                // leave the board solvable for the next edit
+                puzzle[cell] = 0;
+                assertEquals(SolveStatus.SOLVED, solver.edit(cell / SIZE, cell % SIZE, 0));
+            }
+        }
+        assertTrue(local > 0);
+    }
+
+    @Test
+    void unsolvableTest() throws Exception {
+        var puzzle = PuzzleCorpus.load()[0];
+        var solver = new IncrementalSolver();
+        assertEquals(SolveStatus.SOLVED, solver.solve(puzzle));
+
+        // a value which is already given in the same row
+        var given = 0;
+        while (puzzle[given] == 0) {
+            given++;
+        }
+        var empty = given - given % SIZE;
+        while (puzzle[empty] != 0) {
+            empty++;
+        }
+        assertEquals(SolveStatus.UNSOLVABLE, solver.edit(empty / SIZE, empty % SIZE, puzzle[given]));
+        assertNull(solver.getLastRepair());
+        assertEquals(SolveStatus.SOLVED, solver.edit(empty / SIZE, empty % SIZE, 0));
+        assertEquals(IncrementalSolver.Repair.FULL, solver.getLastRepair());
+
+        assertThrows(IllegalArgumentException.class, () -> solver.edit(SIZE, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> solver.edit(0, 0, SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(new int[SIZE]));
+    }
+
+    private static int[] toArray(IncrementalSolver solver) {
+        var values = new int[CELLS];
+        solver.copyCells(values);
+        return values;
+    }
+}
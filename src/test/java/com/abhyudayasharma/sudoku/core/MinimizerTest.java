@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import org.junit.jupiter.api.Test;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MinimizerTest {
+    private static final int CELLS = SIZE * SIZE;
+
+    @Test
+    void minimizeTest() throws Exception {
+        var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        engine.reset(PuzzleCorpus.load()[0]);
+        engine.solve();
+        var grid = new int[CELLS];
+        engine.copyCells(grid);
+
+        var minimizer = new Minimizer();
+        var puzzle = new int[CELLS];
+        for (var seed = 0; seed < 3; seed++) {
+            var minimal = minimizer.minimize(SudokuBoard.of(grid), seed);
+            minimal.copyTo(puzzle);
+
+            // the solution is still the grid
+            engine.reset(puzzle);
+            assertEquals(1, engine.countSolutions(2));
+            var solution = new int[CELLS];
+            engine.reset(puzzle);
+            engine.solve();
+            engine.copyCells(solution);
+            assertEquals(SudokuBoard.of(grid).toLine(), SudokuBoard.of(solution).toLine());
+
+            // every clue is needed
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (puzzle[cell] != 0) {
+                    var clue = puzzle[cell];
+                    puzzle[cell] = 0;
+                    engine.reset(puzzle);
+                    assertEquals(2, engine.countSolutions(2));
+                    puzzle[cell] = clue;
+                }
+            }
+        }
+
+        var smallest = minimizer.minimizeParallel(SudokuBoard.of(grid), 4);
+        smallest.copyTo(puzzle);
+        var clues = 0;
+        for (var value : puzzle) {
+            clues += value == 0 ? 0 : 1;
+        }
+        assertTrue(clues <= minimizer.minimize(grid.clone(), 1));
+    }
+
+    @Test
+    void notUniqueTest() {
+        var minimizer = new Minimizer();
+        assertThrows(IllegalArgumentException.class, () -> minimizer.minimize(SudokuBoard.of(new int[CELLS])));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PortfolioSolverTest {
+    @Test
+    void solveTest() throws Exception {
+        try (var portfolio = new PortfolioSolver(PortfolioSolver.DEFAULT_STRATEGIES)) {
+            var names = portfolio.getStrategies().stream().map(SolverStrategy::getName).collect(Collectors.toSet());
+            for (var puzzle : PuzzleCorpus.load()) {
+                var result = portfolio.solve(SudokuBoard.of(puzzle));
+                assertTrue(names.contains(result.getStrategy()));
+                assertTrue(result.getBoard().isValid());
+
+                var solution = new int[SIZE * SIZE];
+                result.getBoard().copyTo(solution);
+                for (int i = 0; i < solution.length; i++) {
+                    assertTrue(solution[i] != 0 && (puzzle[i] == 0 || puzzle[i] == solution[i]));
+                }
+            }
+        }
+    }
+
+    @Test
+    void unsolvableTest() {
+        var puzzle = PuzzleCorpus.unsolvablePuzzle();
+
+        try (var portfolio = new PortfolioSolver(PortfolioSolver.DEFAULT_STRATEGIES)) {
+            assertThrows(IllegalArgumentException.class, () -> portfolio.solve(SudokuBoard.of(puzzle)));
+        }
+    }
+
+    @Test
+    void seedTest() {
+        var engine = new SolverEngine();
+        var first = new int[SIZE * SIZE];
+        var second = new int[SIZE * SIZE];
+
+        // the empty board has many solutions, so a random search finds different ones for different seeds
+        SolverStrategy.randomized(7).configure(engine);
+        engine.reset(new int[SIZE * SIZE]);
+        engine.solve();
+        engine.copyCells(first);
+
+        engine.reset(new int[SIZE * SIZE]);
+        engine.solve();
+        engine.copyCells(second);
+        assertEquals(SudokuBoard.of(first).toLine(), SudokuBoard.of(second).toLine());
+
+        SolverStrategy.randomized(8).configure(engine);
+        engine.reset(new int[SIZE * SIZE]);
+        engine.solve();
+        engine.copyCells(second);
+        assertTrue(!SudokuBoard.of(first).toLine().equals(SudokuBoard.of(second).toLine()));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleIndexTest {
+    private static final int CELLS = SIZE * SIZE;
+
+    @Test
+    void growTest() throws Exception {
+        var puzzle = PuzzleCorpus.load()[0];
+        try (var index = PuzzleIndex.create(0);
+             var mapped = PuzzleIndex.mapped(0, false, Files.createTempDirectory("index"))) {
+            // every single-cell puzzle and every pair of cells with the same value
+            var cells = new int[CELLS];
+            for (int i = 0; i < CELLS; i++) {
+                for (int value = 1; value <= SIZE; value++) {
+                    cells[i] = value;
+                    assertTrue(index.add(cells));
+                    assertTrue(mapped.add(cells));
+                    for (int j = i + 1; j < CELLS; j++) {
+                        cells[j] = value;
+                        assertTrue(index.add(cells));
+                        assertTrue(mapped.add(cells));
+                        cells[j] = 0;
+                    }
+                }
+                cells[i] = 0;
+            }
+
+            var size = index.getSize();
+            assertEquals(size, mapped.getSize());
+            assertTrue(index.getTableBytes() >= size * 16);
+            assertFalse(index.contains(puzzle));
+            assertTrue(index.add(puzzle));
+            assertFalse(index.add(puzzle.clone()));
+            cells[CELLS - 1] = SIZE;
+            assertFalse(mapped.add(cells));
+            assertEquals(size + 1, index.getSize());
+        }
+    }
+
+    @Test
+    void approximateTest() throws Exception {
+        try (var index = PuzzleIndex.approximate(1000)) {
+            assertEquals(4 * 2048, index.getTableBytes());
+            var cells = new int[CELLS];
+            assertThrows(IllegalStateException.class, () -> {
+                for (int i = 0; i < CELLS; i++) {
+                    for (int value = 1; value <= SIZE; value++) {
+                        cells[i] = value;
+                        index.add(cells);
+                        for (int j = 1; j <= 2; j++) {
+                            cells[(i + j) % CELLS] = value;
+                            index.add(cells);
+                            cells[(i + j) % CELLS] = 0;
+                        }
+                    }
+                    cells[i] = 0;
+                }
+            });
+            assertTrue(index.getSize() > 1000);
+            assertTrue(index.contains(cells));
+        }
+    }
+
+    @Test
+    void canonicalTest() throws Exception {
+        var puzzle = PuzzleCorpus.load()[0];
+        var canonicalizer = new Canonicalizer();
+        var expected = new int[CELLS];
+        canonicalizer.canonicalize(puzzle, expected);
+
+        // rotate by a quarter turn and swap the digits 1 and 2
+        var rotated = new int[CELLS];
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                var value = puzzle[row * SIZE + col];
+                rotated[col * SIZE + SIZE - 1 - row] = value == 1 ? 2 : value == 2 ? 1 : value;
+            }
+        }
+        var actual = new int[CELLS];
+        canonicalizer.canonicalize(rotated, actual);
+        assertArrayEquals(expected, actual);
+
+        canonicalizer.canonicalize(PuzzleCorpus.load()[1], actual);
+        assertFalse(Arrays.equals(expected, actual));
+    }
+}
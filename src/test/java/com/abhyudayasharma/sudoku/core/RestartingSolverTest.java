@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import org.junit.jupiter.api.Test;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RestartingSolverTest {
+    private static final int CELLS = SIZE * SIZE;
+
+    @Test
+    void scheduleTest() {
+        var luby = new long[]{1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1};
+        for (int run = 0; run < luby.length; run++) {
+            assertEquals(luby[run], RestartSchedule.LUBY.factor(run));
+        }
+        assertEquals(1, RestartSchedule.GEOMETRIC.factor(0));
+        assertEquals(2, RestartSchedule.GEOMETRIC.factor(2));
+        assertEquals(Long.MAX_VALUE, RestartSchedule.GEOMETRIC.factor(200));
+        assertThrows(IllegalArgumentException.class, () -> RestartSchedule.LUBY.factor(-1));
+    }
+
+    @Test
+    void solveTest() throws Exception {
+        var corpus = PuzzleCorpus.load();
+        for (var schedule : RestartSchedule.values()) {
+            // a tiny first limit makes the hard puzzles restart many times
+            var solver = new RestartingSolver(ConstraintModel.CLASSIC, schedule, 1, 42);
+            var solution = new int[CELLS];
+            var restarts = 0;
+            for (var puzzle : corpus) {
+                assertEquals(SolveStatus.SOLVED, solver.solve(puzzle));
+                solver.copyCells(solution);
+                assertTrue(SudokuBoard.of(solution).isValid());
+                for (int cell = 0; cell < CELLS; cell++) {
+                    assertTrue(solution[cell] != 0 && (puzzle[cell] == 0 || puzzle[cell] == solution[cell]));
+                }
+                restarts += solver.getRestartCount();
+            }
+            assertTrue(restarts > corpus.length, schedule + " restarted " + restarts + " times");
+        }
+    }
+
+    @Test
+    void reproducibleTest() throws Exception {
+        var puzzle = PuzzleCorpus.load()[4];
+        var first = new RestartingSolver(7);
+        var second = new RestartingSolver(7);
+        assertEquals(SolveStatus.SOLVED, first.solve(puzzle));
+        assertEquals(SolveStatus.SOLVED, second.solve(SudokuBoard.of(puzzle)));
+        assertEquals(first.getNodeCount(), second.getNodeCount());
+        assertEquals(first.getRestartCount(), second.getRestartCount());
+
+        var solution = new int[CELLS];
+        var other = new int[CELLS];
+        first.copyCells(solution);
+        second.copyCells(other);
+        assertArrayEquals(solution, other);
+
+        // solving again gives the same runs
+        var nodes = first.getNodeCount();
+        first.solve(puzzle);
+        assertEquals(nodes, first.getNodeCount());
+    }
+
+    @Test
+    void unsolvableTest() {
+        var puzzle = PuzzleCorpus.endlessPuzzle();
+
+        var solver = new RestartingSolver(ConstraintModel.CLASSIC, RestartSchedule.LUBY, 1, 1);
+        assertEquals(SolveStatus.UNSOLVABLE, solver.solve(puzzle));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(new int[SIZE]));
+        assertThrows(IllegalArgumentException.class,
+            () -> new RestartingSolver(ConstraintModel.CLASSIC, RestartSchedule.LUBY, 0, 1));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolutionCacheTest {
+    private static final int CELLS = SIZE * SIZE;
+    private static final long LIMIT = 1 << 20;
+
+    @Test
+    void warmStartTest() throws Exception {
+        var file = Files.createTempDirectory("cache").resolve("solutions");
+        var grid = grid();
+        try (var cache = SolutionCache.open(file, ConstraintModel.CLASSIC, LIMIT)) {
+            for (int cell = 0; cell < CELLS; cell++) {
+                assertTrue(cache.put(puzzle(grid, cell), grid));
+            }
+            assertFalse(cache.put(puzzle(grid, 0), grid));
+            assertTrue(cache.put(new int[CELLS], null));
+        }
+
+        try (var cache = SolutionCache.open(file, ConstraintModel.CLASSIC, LIMIT)) {
+            assertEquals(CELLS + 1, cache.getSize());
+            var solution = new int[CELLS];
+            for (int cell = 0; cell < CELLS; cell++) {
+                assertEquals(SolveStatus.SOLVED, cache.get(puzzle(grid, cell), solution));
+                assertArrayEquals(grid, solution);
+            }
+            assertEquals(SolveStatus.UNSOLVABLE, cache.get(new int[CELLS], solution));
+            assertNull(cache.get(grid, solution));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> SolutionCache.open(file, ConstraintModel.HYPER, LIMIT));
+        assertThrows(IllegalArgumentException.class, () -> SolutionCache.open(file, ConstraintModel.CLASSIC, 0));
+    }
+
+    @Test
+    void recoveryTest() throws Exception {
+        var file = Files.createTempDirectory("cache").resolve("solutions");
+        var grid = grid();
+        try (var cache = SolutionCache.open(file, ConstraintModel.CLASSIC, LIMIT)) {
+            for (int cell = 0; cell < 10; cell++) {
+                cache.put(puzzle(grid, cell), grid);
+            }
+            cache.flush();
+            for (int cell = 10; cell < 20; cell++) {
+                cache.put(puzzle(grid, cell), grid);
+            }
+
+            // as if the process had died here: the last records were never flushed
+            try (var recovered = SolutionCache.open(file, ConstraintModel.CLASSIC, LIMIT)) {
+                assertEquals(20, recovered.getSize());
+                assertEquals(SolveStatus.SOLVED, recovered.get(puzzle(grid, 15), new int[CELLS]));
+            }
+        }
+
+        // tear the last record
+        var recordBytes = 2 * ((CELLS + 1) / 2) + Integer.BYTES;
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), 32 + 19L * recordBytes + 50);
+        }
+        try (var cache = SolutionCache.open(file, ConstraintModel.CLASSIC, LIMIT)) {
+            assertEquals(19, cache.getSize());
+            assertNull(cache.get(puzzle(grid, 19), new int[CELLS]));
+            assertEquals(SolveStatus.SOLVED, cache.get(puzzle(grid, 18), new int[CELLS]));
+            assertTrue(cache.put(puzzle(grid, 19), grid));
+        }
+
+        // a lost index is rebuilt from the log
+        Files.delete(file.resolveSibling(file.getFileName() + ".index"));
+        try (var cache = SolutionCache.open(file, ConstraintModel.CLASSIC, LIMIT)) {
+            assertEquals(20, cache.getSize());
+            assertEquals(SolveStatus.SOLVED, cache.get(puzzle(grid, 19), new int[CELLS]));
+        }
+    }
+
+    @Test
+    void compactionTest() throws Exception {
+        var file = Files.createTempDirectory("cache").resolve("solutions");
+        var grid = grid();
+        var recordBytes = 2 * ((CELLS + 1) / 2) + Integer.BYTES;
+        try (var cache = SolutionCache.open(file, ConstraintModel.CLASSIC, 32 + 10 * recordBytes)) {
+            for (int cell = 0; cell < 25; cell++) {
+                cache.put(puzzle(grid, cell), grid);
+                assertTrue(cache.getSize() <= 10);
+            }
+            assertEquals(SolveStatus.SOLVED, cache.get(puzzle(grid, 24), new int[CELLS]));
+            assertNull(cache.get(puzzle(grid, 0), new int[CELLS]));
+        }
+        assertTrue(Files.size(file) <= 32 + 10 * recordBytes);
+
+        try (var cache = SolutionCache.open(file, ConstraintModel.CLASSIC, LIMIT)) {
+            assertEquals(SolveStatus.SOLVED, cache.get(puzzle(grid, 24), new int[CELLS]));
+        }
+    }
+
+    private static int[] grid() {
+        var engine = new SolverEngine();
+        engine.reset(new int[CELLS]);
+        engine.solve();
+        var grid = new int[CELLS];
+        engine.copyCells(grid);
+        return grid;
+    }
+
+    private static int[] puzzle(int[] grid, int emptyCell) {
+        var puzzle = grid.clone();
+        puzzle[emptyCell] = 0;
+        return puzzle;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolutionSpliteratorTest {
+    @Test
+    void streamTest() throws Exception {
+        // without its first clue, the puzzle has thousands of solutions
+        var puzzle = PuzzleCorpus.load()[3].clone();
+        var first = 0;
+        while (puzzle[first] == 0) {
+            first++;
+        }
+        puzzle[first] = 0;
+
+        var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        engine.reset(puzzle);
+        var count = engine.countSolutions(Long.MAX_VALUE);
+
+        var board = SudokuBoard.of(puzzle);
+        assertEquals(count, SolutionSpliterator.stream(board).count());
+
+        var lines = SolutionSpliterator.stream(board).parallel().map(SudokuBoard::toLine).collect(Collectors.toSet());
+        assertEquals(count, lines.size());
+        var cells = new int[SIZE * SIZE];
+        for (var line : lines) {
+            var solution = SudokuBoard.parse(line);
+            assertTrue(solution.isValid());
+            solution.copyTo(cells);
+            for (int i = 0; i < cells.length; i++) {
+                assertTrue(cells[i] != 0 && (puzzle[i] == 0 || puzzle[i] == cells[i]));
+            }
+        }
+
+        assertEquals(1, SolutionSpliterator.stream(SudokuBoard.of(PuzzleCorpus.load()[0])).parallel().count());
+        assertEquals(5, SolutionSpliterator.stream(SudokuBoard.of(new int[SIZE * SIZE])).limit(5).count());
+    }
+
+    @Test
+    void splitTest() throws Exception {
+        var board = SudokuBoard.of(new int[SIZE * SIZE]);
+        var spliterator = SolutionSpliterator.stream(board).spliterator();
+        var other = spliterator.trySplit();
+        assertTrue(other != null);
+
+        // the halves share no solutions
+        var mine = new HashSet<String>();
+        for (int i = 0; i < 100; i++) {
+            spliterator.tryAdvance(solution -> mine.add(solution.toLine()));
+        }
+        for (int i = 0; i < 100; i++) {
+            other.tryAdvance(solution -> assertTrue(!mine.contains(solution.toLine())));
+        }
+    }
+}
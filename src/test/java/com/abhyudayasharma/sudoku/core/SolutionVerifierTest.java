@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import org.junit.jupiter.api.Test;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SolutionVerifierTest {
+    private static final int CELLS = SIZE * SIZE;
+
+    @Test
+    void verifyTest() throws Exception {
+        var puzzle = PuzzleCorpus.load()[0];
+        var engine = new SolverEngine();
+        engine.reset(puzzle);
+        engine.solve();
+        var solution = new int[CELLS];
+        engine.copyCells(solution);
+
+        var verifier = new SolutionVerifier();
+        assertEquals(SolutionVerifier.Status.VALID, verify(verifier, puzzle, solution));
+
+        var answer = solution.clone();
+        answer[40] = 0;
+        assertEquals(SolutionVerifier.Status.INCOMPLETE, verify(verifier, puzzle, answer));
+
+        answer = solution.clone();
+        answer[40] = SIZE + 1;
+        assertEquals(SolutionVerifier.Status.MALFORMED, verify(verifier, puzzle, answer));
+
+        // swapping two cells of a row keeps the row valid but breaks their columns
+        answer = solution.clone();
+        var empty = 0;
+        while (puzzle[empty] != 0 || puzzle[empty + 1] != 0 || empty % SIZE == SIZE - 1) {
+            empty++;
+        }
+        answer[empty] = solution[empty + 1];
+        answer[empty + 1] = solution[empty];
+        assertEquals(SolutionVerifier.Status.CONFLICT, verify(verifier, puzzle, answer));
+
+        // relabelling the digits gives another valid grid which does not match the givens
+        answer = solution.clone();
+        for (int i = 0; i < CELLS; i++) {
+            answer[i] = answer[i] % SIZE + 1;
+        }
+        assertEquals(SolutionVerifier.Status.GIVEN_CHANGED, verify(verifier, puzzle, answer));
+    }
+
+    @Test
+    void verifyAllTest() throws Exception {
+        var puzzles = PuzzleCorpus.load();
+        var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        var solution = new int[CELLS];
+
+        // more boards than a single chunk, every third one broken
+        var count = 10_000;
+        var packedPuzzles = new byte[count * CELLS];
+        var packedAnswers = new byte[count * CELLS];
+        for (int board = 0; board < puzzles.length; board++) {
+            engine.reset(puzzles[board]);
+            engine.solve();
+            engine.copyCells(solution);
+            for (int copy = board; copy < count; copy += puzzles.length) {
+                for (int i = 0; i < CELLS; i++) {
+                    packedPuzzles[copy * CELLS + i] = (byte) puzzles[board][i];
+                    packedAnswers[copy * CELLS + i] = (byte) (copy % 3 == 0 && i == 0 ? 0 : solution[i]);
+                }
+            }
+        }
+
+        var verifier = new SolutionVerifier();
+        var statuses = verifier.verifyAll(packedPuzzles, packedAnswers);
+        assertEquals(count, statuses.length);
+        for (int board = 0; board < count; board++) {
+            assertEquals(board % 3 == 0 ? SolutionVerifier.Status.INCOMPLETE : SolutionVerifier.Status.VALID,
+                statuses[board]);
+            assertEquals(statuses[board], verifier.verify(packedPuzzles, packedAnswers, board));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> verifier.verifyAll(new byte[CELLS], new byte[CELLS - 1]));
+    }
+
+    private static SolutionVerifier.Status verify(SolutionVerifier verifier, int[] puzzle, int[] answer) {
+        var packedPuzzle = new byte[CELLS];
+        var packedAnswer = new byte[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            packedPuzzle[i] = (byte) puzzle[i];
+            packedAnswer[i] = (byte) answer[i];
+        }
+        return verifier.verify(packedPuzzle, packedAnswer, 0);
+    }
+}
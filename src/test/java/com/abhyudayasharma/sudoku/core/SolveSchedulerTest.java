@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolveSchedulerTest {
+    @Test
+    void preemptionTest() throws Exception {
+        try (var scheduler = new SolveScheduler(ConstraintModel.CLASSIC, SolverStrategy.ROW_MAJOR, 1, 1, 1)) {
+            var endless = scheduler.solve(SudokuBoard.of(PuzzleCorpus.endlessPuzzle()), SolveScheduler.Priority.BULK);
+            var waiting = scheduler.solve(SudokuBoard.of(PuzzleCorpus.endlessPuzzle()), SolveScheduler.Priority.BULK);
+            while (scheduler.getStatistics(SolveScheduler.Priority.BULK).getRunning() == 0) {
+                Thread.sleep(1);
+            }
+
+            // the only thread is busy with bulk work, but interactive boards do not wait for it to finish
+            for (var puzzle : PuzzleCorpus.load()) {
+                var result = scheduler.solve(SudokuBoard.of(puzzle), SolveScheduler.Priority.INTERACTIVE)
+                    .get(10, TimeUnit.SECONDS);
+                assertTrue(result.getBoard().isValid());
+            }
+            assertFalse(endless.isDone());
+
+            var bulk = scheduler.getStatistics(SolveScheduler.Priority.BULK);
+            // the preempted board may not have got its thread back yet
+            assertEquals(2, bulk.getRunning() + bulk.getQueueDepth());
+            // a future completes just before its thread counts it
+            var interactive = scheduler.getStatistics(SolveScheduler.Priority.INTERACTIVE);
+            while (interactive.getCompleted() < PuzzleCorpus.load().length) {
+                Thread.sleep(1);
+                interactive = scheduler.getStatistics(SolveScheduler.Priority.INTERACTIVE);
+            }
+            assertEquals(0, interactive.getQueueDepth());
+            assertTrue(interactive.getMaxWaitNanos() < TimeUnit.SECONDS.toNanos(1));
+
+            assertTrue(endless.cancel(true));
+            assertTrue(waiting.cancel(true));
+        }
+    }
+
+    @Test
+    void limitTest() throws Exception {
+        try (var scheduler = new SolveScheduler(ConstraintModel.CLASSIC, SolverStrategy.ROW_MAJOR, 2, 2, 1)) {
+            var endless = scheduler.solve(SudokuBoard.of(PuzzleCorpus.endlessPuzzle()), SolveScheduler.Priority.BULK);
+            var queued = scheduler.solve(SudokuBoard.of(PuzzleCorpus.load()[0]), SolveScheduler.Priority.BULK);
+            Thread.sleep(100);
+            // the second thread is free, but the bulk class may only use one
+            assertFalse(queued.isDone());
+            assertEquals(1, scheduler.getStatistics(SolveScheduler.Priority.BULK).getQueueDepth());
+
+            endless.cancel(true);
+            assertTrue(queued.get(10, TimeUnit.SECONDS).getBoard().isValid());
+
+            var unsolvable = SudokuBoard.of(PuzzleCorpus.unsolvablePuzzle());
+            var e = assertThrows(ExecutionException.class, () -> scheduler.solve(SudokuBoard.of(new int[SIZE * SIZE]),
+                SolveScheduler.Priority.INTERACTIVE).thenCompose(result -> scheduler.solve(unsolvable,
+                SolveScheduler.Priority.BULK)).get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+}
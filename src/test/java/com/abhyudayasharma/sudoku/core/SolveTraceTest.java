@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SolveTraceTest {
+    private static final int STEPS = 5000;
+    private static final int KEYFRAME_INTERVAL = 64;
+
+    @Test
+    void seekTest() throws Exception {
+        var out = new ByteArrayOutputStream();
+        var boards = record(out);
+
+        var trace = SolveTrace.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(STEPS, trace.getStepCount());
+        for (int step = 0; step <= STEPS; step += 37) {
+            assertEquals(boards.get(step), Arrays.deepToString(trace.boardAt(step).asMatrix()));
+        }
+        assertEquals(boards.get(STEPS), Arrays.deepToString(trace.boardAt(STEPS).asMatrix()));
+    }
+
+    @Test
+    void truncatedTraceTest() throws Exception {
+        var out = new ByteArrayOutputStream();
+        var boards = record(out);
+
+        // drop the keyframe index and a part of the last keyframe interval
+        var bytes = out.toByteArray();
+        var trace = SolveTrace.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length / 2)));
+        for (int step = 0; step <= trace.getStepCount(); step += 11) {
+            assertEquals(boards.get(step), Arrays.deepToString(trace.boardAt(step).asMatrix()));
+        }
+    }
+
+    /**
+     * Records random steps which mostly move to nearby cells like a solver does.
+     *
+     * @return the expected boards after every step
+     */
+    private static List<String> record(ByteArrayOutputStream out) throws Exception {
+        var random = new Random(42);
+        var matrix = new int[SIZE][SIZE];
+        var boards = new ArrayList<String>();
+        boards.add(Arrays.deepToString(matrix));
+
+        var cell = 0;
+        try (var recorder = new TraceRecorder(out, SudokuBoard.of(matrix), KEYFRAME_INTERVAL)) {
+            for (int i = 0; i < STEPS; i++) {
+                cell = random.nextInt(10) == 0 ? random.nextInt(SIZE * SIZE)
+                    : Math.floorMod(cell + random.nextInt(3) - 1, SIZE * SIZE);
+                var value = random.nextInt(SIZE + 1);
+                matrix[cell / SIZE][cell % SIZE] = value;
+                recorder.record(cell / SIZE, cell % SIZE, value);
+                boards.add(Arrays.deepToString(matrix));
+            }
+        }
+
+        return boards;
+    }
+}
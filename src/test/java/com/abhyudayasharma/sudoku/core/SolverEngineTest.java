@@ -0,0 +1,270 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import com.abhyudayasharma.sudoku.SudokuBoard;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolverEngineTest {
+    private static final int CELLS = SIZE * SIZE;
+
+    @Test
+    void solveCorpusTest() throws Exception {
+        var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        var solution = new int[CELLS];
+
+        for (var puzzle : PuzzleCorpus.load()) {
+            engine.reset(puzzle);
+            assertEquals(SolveStatus.SOLVED, engine.solve());
+            engine.copyCells(solution);
+            assertSolves(puzzle, solution);
+        }
+    }
+
+    @Test
+    void rowMajorTest() throws Exception {
+        var puzzle = PuzzleCorpus.load()[0];
+        var engine = new SolverEngine();
+        var moves = new int[1];
+        engine.setMoveListener((row, col, oldValue, newValue) -> moves[0]++);
+        engine.reset(puzzle);
+        assertEquals(SolveStatus.SOLVED, engine.solve());
+        assertTrue(moves[0] >= engine.getNodeCount());
+
+        var solution = new int[CELLS];
+        engine.copyCells(solution);
+        assertSolves(puzzle, solution);
+    }
+
+    @Test
+    void unsolvableTest() {
+        var engine = new SolverEngine();
+
+        var puzzle = PuzzleCorpus.unsolvablePuzzle();
+        engine.reset(puzzle);
+        assertEquals(SolveStatus.UNSOLVABLE, engine.solve());
+
+        // the same value twice in a row
+        puzzle = new int[CELLS];
+        puzzle[0] = puzzle[1] = 5;
+        engine.reset(puzzle);
+        assertEquals(SolveStatus.UNSOLVABLE, engine.solve());
+    }
+
+    @Test
+    void nodeLimitTest() {
+        var puzzle = PuzzleCorpus.endlessPuzzle();
+
+        var engine = new SolverEngine();
+        engine.setNodeLimit(1000);
+        engine.reset(puzzle);
+        assertEquals(SolveStatus.CANCELLED, engine.solve());
+        assertEquals(1000, engine.getNodeCount());
+
+        // raising the limit continues the same search
+        engine.setNodeLimit(2500);
+        assertEquals(SolveStatus.CANCELLED, engine.solve());
+        assertEquals(2500, engine.getNodeCount());
+        assertEquals(SolveStatus.CANCELLED, engine.solve());
+
+        // the backtrack limit stops and continues a search the same way
+        engine.setNodeLimit(Long.MAX_VALUE);
+        engine.setBacktrackLimit(100);
+        engine.reset(puzzle);
+        assertEquals(SolveStatus.CANCELLED, engine.solve());
+        assertEquals(100, engine.getBacktrackCount());
+        engine.setBacktrackLimit(250);
+        assertEquals(SolveStatus.CANCELLED, engine.solve());
+        assertEquals(250, engine.getBacktrackCount());
+    }
+
+    @Test
+    void progressTest() throws Exception {
+        var engine = new SolverEngine();
+        var last = new double[1];
+        engine.setMoveListener((row, col, oldValue, newValue) -> {
+            var fraction = engine.getProgress().getExploredFraction();
+            assertTrue(fraction >= last[0] && fraction < 1, "The explored fraction went from " + last[0] + " to "
+                + fraction);
+            last[0] = fraction;
+        });
+
+        engine.reset(PuzzleCorpus.load()[1]);
+        assertEquals(SearchProgress.NONE, engine.getProgress());
+        assertEquals(SolveStatus.SOLVED, engine.solve());
+        assertTrue(last[0] > 0);
+
+        var progress = engine.getProgress();
+        assertEquals(1.0, progress.getExploredFraction());
+        assertEquals(engine.getNodeCount(), progress.getNodeCount());
+    }
+
+    @Test
+    void countSolutionsTest() throws Exception {
+        var puzzles = PuzzleCorpus.load();
+        var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        engine.reset(puzzles[0]);
+        assertEquals(1, engine.countSolutions(2));
+
+        // without its first clue, the puzzle has many solutions
+        var puzzle = puzzles[3].clone();
+        var first = 0;
+        while (puzzle[first] == 0) {
+            first++;
+        }
+        puzzle[first] = 0;
+        engine.reset(puzzle);
+        var count = engine.countSolutions(Long.MAX_VALUE);
+        var nodes = engine.getNodeCount();
+        assertTrue(count > 2);
+        engine.reset(puzzle);
+        assertEquals(2, engine.countSolutions(2));
+
+        var table = new TranspositionTable(1 << 16);
+        engine.setTranspositionTable(table);
+        engine.reset(puzzle);
+        assertEquals(count, engine.countSolutions(Long.MAX_VALUE));
+        assertTrue(table.getHitCount() > 0);
+        assertTrue(engine.getNodeCount() < nodes);
+
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable((1 << 29) + 1));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    void excludeTest() throws Exception {
+        var puzzle = PuzzleCorpus.load()[0];
+        var engine = new SolverEngine();
+        engine.reset(puzzle);
+        assertEquals(SolveStatus.SOLVED, engine.solve());
+        var solution = new int[CELLS];
+        engine.copyCells(solution);
+
+        // the puzzle has no other solution
+        var cell = 0;
+        while (puzzle[cell] != 0) {
+            cell++;
+        }
+        engine.reset(puzzle);
+        engine.exclude(cell, solution[cell]);
+        assertEquals(SolveStatus.UNSOLVABLE, engine.solve());
+
+        // the empty board has solutions with any other value, and a reset clears the exclusions
+        engine.reset(new int[CELLS]);
+        engine.exclude(0, 1);
+        assertEquals(SolveStatus.SOLVED, engine.solve());
+        assertTrue(engine.toBoard().asMatrix()[0][0] != 1);
+        engine.reset(puzzle);
+        assertEquals(SolveStatus.SOLVED, engine.solve());
+        assertThrows(IllegalArgumentException.class, () -> engine.exclude(CELLS, 1));
+    }
+
+    @Test
+    void flightRecorderTest() throws Exception {
+        var file = Files.createTempFile("sudoku", ".jfr");
+        try (var recording = new Recording(Configuration.create(Path.of("src/dist/sudoku.jfc")))) {
+            // solving the corpus takes less than the thresholds of the profile
+            recording.enable(SolveEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(PropagationEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+
+            var engine = new SolverEngine();
+            engine.reset(PuzzleCorpus.load()[0]);
+            engine.solve();
+
+            // the empty board has more than one solution
+            engine.setTranspositionTable(new TranspositionTable(1024));
+            engine.reset(new int[CELLS]);
+            assertEquals(2, engine.countSolutions(2));
+
+            recording.stop();
+            recording.dump(file);
+            var names = RecordingFile.readAllEvents(file).stream().map(RecordedEvent::getEventType)
+                .map(jdk.jfr.EventType::getName).collect(Collectors.toSet());
+            assertTrue(names.contains("com.abhyudayasharma.sudoku.Solve"));
+            assertTrue(names.contains("com.abhyudayasharma.sudoku.Propagation"));
+            assertTrue(names.contains("com.abhyudayasharma.sudoku.BudgetExhausted"));
+            assertTrue(names.contains("com.abhyudayasharma.sudoku.Cache"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void noAllocationTest() throws Exception {
+        var threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return;
+        }
+
+        var puzzles = PuzzleCorpus.load();
+        var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        for (int i = 0; i < 20; i++) { // warm up
+            for (var puzzle : puzzles) {
+                engine.reset(puzzle);
+                engine.solve();
+            }
+        }
+
+        var bean = (com.sun.management.ThreadMXBean) threadBean;
+        var thread = Thread.currentThread().getId();
+        var before = bean.getThreadAllocatedBytes(thread);
+        for (var puzzle : puzzles) {
+            engine.reset(puzzle);
+            engine.solve();
+        }
+        var allocated = bean.getThreadAllocatedBytes(thread) - before;
+
+        // allow for the allocations of the measurement itself
+        assertTrue(allocated < 1024, "Allocated " + allocated + " bytes while solving");
+    }
+
+    private static void assertSolves(int[] puzzle, int[] solution) {
+        for (int i = 0; i < CELLS; i++) {
+            assertTrue(puzzle[i] == 0 || puzzle[i] == solution[i], "A given was changed");
+            assertTrue(solution[i] != 0, "The solution is not complete");
+        }
+        assertTrue(SudokuBoard.of(solution).isValid());
+    }
+}
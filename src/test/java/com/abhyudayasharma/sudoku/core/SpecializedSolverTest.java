@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Abhyudaya Sharma
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.abhyudayasharma.sudoku.core;
+
+import com.abhyudayasharma.sudoku.PuzzleCorpus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static com.abhyudayasharma.sudoku.SudokuBoard.SIZE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SpecializedSolverTest {
+    private static final int CELLS = SIZE * SIZE;
+    private static SpecializedSolver classic;
+
+    @BeforeAll
+    static void generate() {
+        assumeTrue(SpecializedSolver.isAvailable(), "Needs the Java compiler of a JDK");
+        classic = SpecializedSolver.generate(ConstraintModel.CLASSIC);
+    }
+
+    @Test
+    void sameSearchAsEngineTest() throws Exception {
+        var solver = classic.newInstance();
+        var engine = new SolverEngine();
+        engine.setCellOrder(CellOrder.MIN_REMAINING_VALUES);
+        var cells = new int[CELLS];
+        var expected = new int[CELLS];
+        for (var puzzle : PuzzleCorpus.load()) {
+            System.arraycopy(puzzle, 0, cells, 0, CELLS);
+            engine.reset(puzzle);
+            assertEquals(engine.solve(), solver.solve(cells));
+            engine.copyCells(expected);
+            assertArrayEquals(expected, cells);
+            assertEquals(engine.getNodeCount(), solver.getNodeCount());
+        }
+    }
+
+    @Test
+    void variantTest() {
+        for (var model : new ConstraintModel[]{ConstraintModel.DIAGONAL, ConstraintModel.HYPER}) {
+            var cells = new int[CELLS];
+            assertEquals(SolveStatus.SOLVED, SpecializedSolver.generate(model).solve(cells));
+            for (var value : cells) {
+                assertTrue(value > 0);
+            }
+            assertTrue(model.isConsistent(cells));
+        }
+    }
+
+    @Test
+    void unsolvableTest() {
+        var solver = classic;
+
+        var puzzle = PuzzleCorpus.unsolvablePuzzle();
+        var cells = puzzle.clone();
+        assertEquals(SolveStatus.UNSOLVABLE, solver.solve(cells));
+        assertArrayEquals(puzzle, cells);
+
+        cells = new int[CELLS];
+        cells[0] = 5;
+        cells[1] = 5;
+        assertEquals(SolveStatus.UNSOLVABLE, solver.solve(cells));
+
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(new int[CELLS - 1]));
+        assertThrows(IllegalArgumentException.class, () -> SpecializedSolver.generate(
+            ConstraintModel.builder("killer").rows().columns().boxes().cage(3, 0, 1).build()));
+    }
+}